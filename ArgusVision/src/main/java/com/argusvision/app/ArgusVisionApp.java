@@ -1,49 +1,69 @@
 package com.argusvision.app;
 
-import org.opencv.core.Core;
-
+import com.argusvision.camera.BufferedVisionOutput;
 import com.argusvision.camera.HeadlessVisionOutput;
 import com.argusvision.camera.VisionMonitor;
-import com.argusvision.camera.VisionOutput;
+import com.argusvision.metrics.MetricsServer;
+import com.argusvision.net.SessionManager;
 import com.argusvision.util.FileLogger;
 import com.argusvision.util.VisionContext;
 import com.argusvision.model.Session;
-import com.argusvision.net.SessionClient;
 
 public class ArgusVisionApp {
 
+	/**
+	 * Com -Dargusvision.startup.exitAfterFirstFrame=true o processo encerra após o
+	 * primeiro frame monitorado. Usado na execução de treino do arquivo AppCDS.
+	 */
+	private static final String EXIT_AFTER_FIRST_FRAME = "argusvision.startup.exitAfterFirstFrame";
+
 	public static void main(String[] args) {
 
-		// 1️⃣ Carregar biblioteca OpenCV
-		try {
-			System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
-			System.out.println("OpenCV carregado com sucesso!");
-		} catch (UnsatisfiedLinkError e) {
-			System.err.println("ERRO CRÍTICO: Não foi possível carregar OpenCV.");
-			System.exit(1);
-		}
+		StartupTimer timer = new StartupTimer();
 
 		System.out.println("================================================");
 		System.out.println("      ArgusVision - Monitoramento Visual");
 		System.out.println("================================================");
 
+		// Endpoint/snapshot de métricas (opcional, via -Dargusvision.metrics.*)
+		MetricsServer.startFromSystemProperties(FileLogger.getLogDir());
+
 		String student = args.length > 0 ? args[0] : "AlunoTeste";
 
-		Session s;
-		// 2️⃣ Buscar sessão ANTES de iniciar câmera
-		
+		// Sessão: cache local com TTL + revalidação em segundo plano
+		SessionManager sessionManager = new SessionManager();
+
+		// 1️⃣ e 2️⃣ Carregar OpenCV, buscar sessão, carregar modelo e abrir câmera (em paralelo)
+		StartupPipeline.Result startup;
 		try {
-			s = SessionClient.fetch();
-		    //s = SessionClient.fetchByStudent(student);
-		} catch (RuntimeException e) {
-		    System.out.println("Nenhuma sessão ativa para este aluno. Encerrando.");
-		    return;
+			startup = new StartupPipeline(timer, sessionManager).run();
+			System.out.println("OpenCV carregado com sucesso!");
+		} catch (UnsatisfiedLinkError e) {
+			System.err.println("ERRO CRÍTICO: Não foi possível carregar OpenCV.");
+			System.exit(1);
+			return;
+		} catch (StartupPipeline.StartupException e) {
+			switch (e.stage()) {
+			case SESSION:
+				System.out.println("Nenhuma sessão ativa para este aluno. Encerrando.");
+				return;
+			case MODEL:
+				System.err.println("ERRO CRÍTICO: Não foi possível carregar o modelo de rosto: " + e.getCause());
+				break;
+			case CAMERA:
+				System.err.println("ERRO CRÍTICO: Falha ao abrir a câmera: " + e.getCause());
+				break;
+			}
+			System.exit(1);
+			return;
 		}
 
+		Session s = startup.session;
+
 		//Session s = SessionClient.start(student, exam);
 
-		// 3️⃣ Inicializar contexto global
-		VisionContext.init(s.getStudent(), s.getExam(), s.getSession());
+		// 3️⃣ Identidade deste monitor (imutável; trocada se a sessão mudar)
+		VisionContext context = VisionContext.of(s);
 
 		// 4️⃣ Criar GUI
 		//CameraViewer gui = new CameraViewer();
@@ -55,20 +75,33 @@ public class ArgusVisionApp {
 //			gui.setStatus("Iniciando monitoramento...");
 //		});
 
-		VisionOutput output = new HeadlessVisionOutput();
+		// Saída desacoplada do loop de visão (headless não consome frames)
+		BufferedVisionOutput output = new BufferedVisionOutput(new HeadlessVisionOutput(), false);
 		
 		// 6️⃣ Criar Monitor
 		//VisionMonitor monitor = new VisionMonitor(s.getStudent(), s.getExam(), output);
-		VisionMonitor monitor = new VisionMonitor(s.getStudent(), s.getExam(), s.getSession(), output);
+		VisionMonitor monitor = new VisionMonitor(context, output, startup.frameSource, startup.faceClassifier);
+		monitor.setFirstFrameListener(() -> {
+			timer.firstFrame();
+			if (Boolean.getBoolean(EXIT_AFTER_FIRST_FRAME))
+				System.exit(0);
+		});
+		// Revalidação antes do loop: uma sessão do cache já encerrada é trocada logo
+		sessionManager.addListener(monitor::updateContext);
+		sessionManager.startRefresh();
+
 		System.out.println("\nIniciando câmera e algoritmos...");
 		monitor.start();
 
 		// 7️⃣ Encerramento controlado
 		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
 			System.out.println("Encerrando sistema...");
+			sessionManager.close();
 			monitor.stop();
 			//monitor.release();
+			output.close();
 			FileLogger.closeJsonLog();
+			MetricsServer.stop();
 		}));
 	}
 }
@@ -0,0 +1,144 @@
+package com.argusvision.app;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.opencv.core.Core;
+
+import com.argusvision.camera.FaceClassifier;
+import com.argusvision.camera.FrameSource;
+import com.argusvision.camera.VideoCaptureFrameSource;
+import com.argusvision.model.Session;
+import com.argusvision.net.SessionManager;
+import com.argusvision.util.IoExecutors;
+
+/**
+ * Inicialização em paralelo.
+ *
+ * A busca da sessão (cache local ou rede) não depende do OpenCV e roda desde o início; o
+ * carregamento do modelo (extração + parse do cascade) e a abertura da câmera
+ * dependem só da biblioteca nativa e rodam em paralelo entre si:
+ *
+ * <pre>
+ * native ──┬── modelo
+ *          └── câmera
+ * sessão ───────────────
+ * </pre>
+ */
+public class StartupPipeline {
+
+	private static final int CAMERA_INDEX = 0;
+
+	private final StartupTimer timer;
+	private final SessionManager sessionManager;
+
+	public StartupPipeline(StartupTimer timer, SessionManager sessionManager) {
+		this.timer = timer;
+		this.sessionManager = sessionManager;
+	}
+
+	/** Fase da inicialização que falhou */
+	public enum Stage {
+		SESSION, MODEL, CAMERA
+	}
+
+	/**
+	 * Falha de uma fase, com a causa original. Permite ao chamador distinguir
+	 * "sem sessão ativa" de "cascade ausente" ou "câmera ocupada".
+	 */
+	public static final class StartupException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Stage stage;
+
+		StartupException(Stage stage, Throwable cause) {
+			super(stage + ": " + cause.getMessage(), cause);
+			this.stage = stage;
+		}
+
+		public Stage stage() {
+			return stage;
+		}
+	}
+
+	/**
+	 * Resultado da inicialização: tudo pronto para criar o VisionMonitor.
+	 */
+	public static final class Result {
+		public final Session session;
+		public final FaceClassifier faceClassifier;
+		public final FrameSource frameSource;
+
+		Result(Session session, FaceClassifier faceClassifier, FrameSource frameSource) {
+			this.session = session;
+			this.faceClassifier = faceClassifier;
+			this.frameSource = frameSource;
+		}
+	}
+
+	/**
+	 * Executa todas as fases e aguarda o término.
+	 *
+	 * @throws UnsatisfiedLinkError se o OpenCV não puder ser carregado
+	 * @throws StartupException     se a sessão, o modelo ou a câmera falharem
+	 */
+	public Result run() {
+		ExecutorService executor = Executors.newFixedThreadPool(3, r -> {
+			Thread t = new Thread(r, "Startup");
+			t.setDaemon(true);
+			return t;
+		});
+
+		try {
+			// Cache recente ou chamada de rede: em modo de I/O virtual roda em uma virtual thread
+			CompletableFuture<Session> session = CompletableFuture.supplyAsync(
+					() -> timer.time("session_fetch", sessionManager::resolve), IoExecutors.blocking(executor));
+
+			CompletableFuture<Void> nativeLib = CompletableFuture.runAsync(
+					() -> timer.time("opencv_load", () -> System.loadLibrary(Core.NATIVE_LIBRARY_NAME)), executor);
+
+			CompletableFuture<FaceClassifier> model = nativeLib.thenApplyAsync(
+					v -> timer.time("model_load", () -> new FaceClassifier()), executor);
+
+			// A câmera é aberta aqui; o loop de visão reaproveita a captura já aberta
+			CompletableFuture<FrameSource> camera = nativeLib.thenApplyAsync(v -> timer.time("camera_open", () -> {
+				FrameSource source = new VideoCaptureFrameSource(CAMERA_INDEX);
+				source.open();
+				return source;
+			}), executor);
+
+			try {
+				nativeLib.join();
+			} catch (CompletionException e) {
+				throw unwrapError(e);
+			}
+
+			// Sem qualquer uma das fases não há monitoramento: libera a câmera que já pode estar aberta
+			Session s = await(session, Stage.SESSION, camera);
+			FaceClassifier classifier = await(model, Stage.MODEL, camera);
+			FrameSource source = await(camera, Stage.CAMERA, camera);
+
+			return new Result(s, classifier, source);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static <T> T await(CompletableFuture<T> phase, Stage stage, CompletableFuture<FrameSource> camera) {
+		try {
+			return phase.join();
+		} catch (CompletionException e) {
+			camera.thenAccept(FrameSource::release);
+			throw new StartupException(stage, e.getCause() != null ? e.getCause() : e);
+		}
+	}
+
+	private static Error unwrapError(CompletionException e) {
+		if (e.getCause() instanceof Error)
+			return (Error) e.getCause();
+		return new UnsatisfiedLinkError(String.valueOf(e.getCause()));
+	}
+}
@@ -0,0 +1,68 @@
+package com.argusvision.app;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.argusvision.metrics.Metrics;
+import com.argusvision.util.FileLogger;
+
+/**
+ * Mede as fases da inicialização e o tempo até o primeiro frame monitorado.
+ *
+ * Cada fase é registrada no console, no log TXT e como gauge
+ * (startup_&lt;fase&gt;_ms), para acompanhar a evolução entre versões.
+ */
+public class StartupTimer {
+
+	private final long mainStartNanos = System.nanoTime();
+	private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+	private final Map<String, Long> phases = new ConcurrentHashMap<>();
+
+	/**
+	 * Executa {@code phase} medindo sua duração.
+	 */
+	public <T> T time(String name, Supplier<T> phase) {
+		long start = System.nanoTime();
+		try {
+			return phase.get();
+		} finally {
+			record(name, (System.nanoTime() - start) / 1_000_000);
+		}
+	}
+
+	public void time(String name, Runnable phase) {
+		time(name, () -> {
+			phase.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Chamado quando o primeiro frame foi capturado e processado.
+	 */
+	public void firstFrame() {
+		long sinceMain = (System.nanoTime() - mainStartNanos) / 1_000_000;
+		long sinceJvm = System.currentTimeMillis() - jvmStartMillis;
+
+		record("first_frame", sinceMain);
+		Metrics.gauge("startup_first_frame_since_jvm_ms", () -> sinceJvm);
+
+		String msg = "[STARTUP] Primeiro frame monitorado em " + sinceMain + " ms (" + sinceJvm + " ms desde a JVM)";
+		System.out.println(msg);
+		FileLogger.logTxt(msg);
+	}
+
+	private void record(String name, long ms) {
+		phases.put(name, ms);
+		Metrics.gauge("startup_" + name + "_ms", () -> ms);
+
+		if (!"first_frame".equals(name)) {
+			String msg = "[STARTUP] " + name + ": " + ms + " ms (" + Thread.currentThread().getName() + ")";
+			System.out.println(msg);
+			FileLogger.logTxt(msg);
+		}
+	}
+}
@@ -0,0 +1,253 @@
+package com.argusvision.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.opencv.core.Core;
+import org.opencv.videoio.VideoCapture;
+import org.opencv.videoio.Videoio;
+
+import com.argusvision.camera.StatusDebouncer;
+import com.argusvision.camera.VisionMonitor;
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Metrics;
+import com.argusvision.util.FileLogger;
+import com.argusvision.util.VisionContext;
+
+/**
+ * Reanálise de rosto em vídeos gravados, mais rápida que o tempo real (ex:
+ * depois de trocar o modelo).
+ *
+ * - cada vídeo é dividido em trechos de {@code chunkSec} segundos, e todos os
+ *   trechos de todos os vídeos vão para um único ForkJoinPool (um worker por
+ *   núcleo, cada um com o seu CascadeClassifier)
+ * - os trechos devolvem só os status brutos por frame; a costura concatena
+ *   tudo em ordem e aplica a mesma regra de estabilidade do VisionMonitor
+ *   (700 ms estável, 2 s entre eventos) numa única passada, então um status que
+ *   atravessa a fronteira de dois trechos é tratado como no monitoramento ao vivo
+ * - o horário de cada frame é o início da gravação + índice / fps
+ * - a saída é {@code <outDir>/<vídeo>_events.json}, no mesmo formato do
+ *   argusvision_events.json ({@link FileLogger#formatJsonEvent})
+ *
+ * Uso: {@code java com.argusvision.batch.BatchAnalyzer video1.mp4 [video2.mp4 ...]}
+ *
+ * Configuração (system properties):
+ * - argusvision.batch.threads (padrão: núcleos disponíveis)
+ * - argusvision.batch.chunkSec (padrão 30)
+ * - argusvision.batch.stride: classifica 1 a cada N frames (padrão 1, todos)
+ * - argusvision.batch.outDir (padrão {@code <logDir>/batch})
+ * - argusvision.batch.student / exam / session: identidade gravada nos eventos
+ * - argusvision.batch.startEpochMs: início da gravação; padrão é a data de
+ *   modificação do arquivo menos a duração do vídeo
+ */
+public final class BatchAnalyzer implements AutoCloseable {
+
+	private static final double DEFAULT_FPS = 30;
+
+	private static final Counter VIDEOS = Metrics.counter("batch_videos_total");
+	private static final Counter CHUNKS = Metrics.counter("batch_chunks_total");
+	private static final Counter EVENTS = Metrics.counter("batch_events_total");
+
+	private final ForkJoinPool pool;
+	private final int chunkSec;
+	private final int stride;
+	private final Path outDir;
+	private final VisionContext context;
+	private final Long startEpochMs;
+
+	/**
+	 * Um vídeo com os trechos já submetidos ao pool.
+	 */
+	private static final class Job {
+		final Path video;
+		final double fps;
+		final int frameCount;
+		final List<ForkJoinTask<StatusRuns>> chunks = new ArrayList<>();
+
+		Job(Path video, double fps, int frameCount) {
+			this.video = video;
+			this.fps = fps;
+			this.frameCount = frameCount;
+		}
+	}
+
+	public BatchAnalyzer(int threads, int chunkSec, int stride, Path outDir, VisionContext context,
+			Long startEpochMs) {
+		this.pool = new ForkJoinPool(threads, p -> {
+			ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			t.setName("Vision-Batch-" + t.getPoolIndex());
+			return t;
+		}, null, false);
+		this.chunkSec = chunkSec;
+		this.stride = Math.max(1, stride);
+		this.outDir = outDir;
+		this.context = context;
+		this.startEpochMs = startEpochMs;
+	}
+
+	public static BatchAnalyzer fromSystemProperties() {
+		VisionContext u = VisionContext.UNKNOWN;
+		VisionContext ctx = new VisionContext(System.getProperty("argusvision.batch.student", u.student()),
+				System.getProperty("argusvision.batch.exam", u.exam()),
+				System.getProperty("argusvision.batch.session", u.session()));
+
+		return new BatchAnalyzer(
+				Integer.getInteger("argusvision.batch.threads", Runtime.getRuntime().availableProcessors()),
+				Integer.getInteger("argusvision.batch.chunkSec", 30),
+				Integer.getInteger("argusvision.batch.stride", 1),
+				Paths.get(System.getProperty("argusvision.batch.outDir", FileLogger.getLogDir() + "/batch")),
+				ctx, Long.getLong("argusvision.batch.startEpochMs"));
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Uso: BatchAnalyzer <video> [video ...]");
+			System.exit(2);
+		}
+
+		System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+		// O paralelismo vem dos trechos; threads internas do OpenCV só disputariam os mesmos núcleos
+		Core.setNumThreads(1);
+
+		List<Path> videos = new ArrayList<>();
+		for (String a : args)
+			videos.add(Paths.get(a));
+
+		try (BatchAnalyzer analyzer = fromSystemProperties()) {
+			analyzer.analyze(videos);
+		}
+	}
+
+	/**
+	 * Analisa os vídeos e grava um arquivo de eventos por vídeo.
+	 */
+	public void analyze(List<Path> videos) throws IOException {
+		Files.createDirectories(outDir);
+		long t0 = System.nanoTime();
+
+		// Todos os trechos entram no pool antes de qualquer espera: vídeos curtos
+		// não deixam núcleos ociosos enquanto o anterior termina
+		List<Job> jobs = new ArrayList<>();
+		for (Path video : videos) {
+			Job job = submit(video);
+			if (job != null)
+				jobs.add(job);
+		}
+
+		long totalFrames = 0;
+		double totalVideoSec = 0;
+		for (Job job : jobs) {
+			StatusRuns all = new StatusRuns();
+			for (ForkJoinTask<StatusRuns> chunk : job.chunks)
+				all.append(chunk.join());
+
+			int events = writeEvents(job, all);
+			VIDEOS.inc();
+
+			double videoSec = all.frames() / job.fps;
+			totalFrames += all.frames();
+			totalVideoSec += videoSec;
+			System.out.printf("[BATCH] %s: %d frames (%.0f s de vídeo) em %d trechos, %d eventos%n",
+					job.video.getFileName(), all.frames(), videoSec, job.chunks.size(), events);
+
+			if (job.frameCount > 0 && all.frames() < job.frameCount)
+				System.err.printf("[BATCH] %s: %d de %d frames lidos (vídeo truncado ou contagem imprecisa)%n",
+						job.video.getFileName(), all.frames(), job.frameCount);
+		}
+
+		double wallSec = (System.nanoTime() - t0) / 1e9;
+		System.out.printf("[BATCH] %d vídeos, %d frames em %.1f s: %.0f frames/s, %.1fx o tempo real (%d threads)%n",
+				jobs.size(), totalFrames, wallSec, totalFrames / wallSec, totalVideoSec / wallSec,
+				pool.getParallelism());
+	}
+
+	/**
+	 * Lê fps e número de frames e submete um {@link ChunkTask} por trecho.
+	 */
+	private Job submit(Path video) {
+		VideoCapture probe = new VideoCapture(video.toString());
+		double fps;
+		int frameCount;
+		try {
+			if (!probe.isOpened()) {
+				System.err.println("[BATCH] Não foi possível abrir " + video);
+				return null;
+			}
+			fps = probe.get(Videoio.CAP_PROP_FPS);
+			frameCount = (int) probe.get(Videoio.CAP_PROP_FRAME_COUNT);
+		} finally {
+			probe.release();
+		}
+
+		if (fps <= 0) {
+			System.err.println("[BATCH] " + video.getFileName() + " sem fps no contêiner; assumindo " + DEFAULT_FPS);
+			fps = DEFAULT_FPS;
+		}
+
+		Job job = new Job(video, fps, frameCount);
+		if (frameCount <= 0) {
+			// Sem contagem confiável (ex: stream sem índice): um trecho até o fim
+			job.chunks.add(pool.submit(new ChunkTask(video.toString(), 0, Integer.MAX_VALUE, stride)));
+			CHUNKS.inc();
+			return job;
+		}
+
+		// Trechos múltiplos do stride: a amostragem segue a mesma grade do vídeo inteiro
+		int chunkFrames = Math.max(stride, (int) (chunkSec * fps) / stride * stride);
+		for (int start = 0; start < frameCount; start += chunkFrames) {
+			int end = Math.min(frameCount, start + chunkFrames);
+			job.chunks.add(pool.submit(new ChunkTask(video.toString(), start, end, stride)));
+			CHUNKS.inc();
+		}
+		return job;
+	}
+
+	/**
+	 * Grava os eventos estabilizados de todos os trechos costurados
+	 * ({@link StatusRuns#stableEvents}).
+	 *
+	 * @return número de eventos de rosto gravados
+	 */
+	private int writeEvents(Job job, StatusRuns all) throws IOException {
+		long origin = startEpochMs != null ? startEpochMs
+				: Files.getLastModifiedTime(job.video).toMillis() - Math.round(all.frames() * 1000.0 / job.fps);
+
+		SimpleDateFormat format = new SimpleDateFormat(FileLogger.JSON_TIMESTAMP_PATTERN);
+		StatusDebouncer debouncer = new StatusDebouncer(VisionMonitor.FACE_STABLE_TIME_MS,
+				VisionMonitor.FACE_SEND_INTERVAL_MS);
+
+		List<String> objects = new ArrayList<>();
+		objects.add(jsonEvent(format, origin, "vision", "INIT", 0));
+
+		List<StatusRuns.Event> events = all.stableEvents(job.fps, stride, debouncer);
+		for (StatusRuns.Event e : events)
+			objects.add(jsonEvent(format, origin + e.offsetMs, "Rosto", e.status, 2));
+		objects.add(jsonEvent(format, origin + all.lastSampleMs(job.fps, stride), "vision", "STOPPED", 0));
+		EVENTS.add(events.size());
+
+		String name = job.video.getFileName().toString().replaceFirst("\\.[^.]+$", "") + "_events.json";
+		Files.write(outDir.resolve(name), ("[\n" + String.join(",\n", objects) + "\n]\n")
+				.getBytes(StandardCharsets.UTF_8));
+		return events.size();
+	}
+
+	private String jsonEvent(SimpleDateFormat format, long epochMs, String type, String detail, int confidence) {
+		return FileLogger.formatJsonEvent(format.format(new Date(epochMs)), context.student(), context.exam(), type,
+				detail, confidence);
+	}
+
+	@Override
+	public void close() {
+		pool.shutdownNow();
+	}
+}
@@ -0,0 +1,142 @@
+package com.argusvision.batch;
+
+import java.util.concurrent.RecursiveTask;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.videoio.VideoCapture;
+import org.opencv.videoio.Videoio;
+
+import com.argusvision.camera.FaceClassifier;
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Histogram;
+import com.argusvision.metrics.Metrics;
+
+/**
+ * Classifica o rosto nos frames [start, end) de um vídeo.
+ *
+ * Cada tarefa abre a sua própria captura (o decodificador não é
+ * compartilhável) e usa o {@link FaceClassifier} da thread do pool, criado
+ * uma vez por worker: o CascadeClassifier nativo não é thread-safe.
+ *
+ * Só guarda os status brutos por frame; a regra de estabilidade é aplicada
+ * depois, na costura de todos os trechos, para que as fronteiras não mudem
+ * o resultado.
+ */
+final class ChunkTask extends RecursiveTask<StatusRuns> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Mesma resolução de análise do VisionMonitor */
+	private static final Size FRAME_SIZE = new Size(640, 480);
+
+	private static final ThreadLocal<FaceClassifier> CLASSIFIERS = ThreadLocal.withInitial(FaceClassifier::new);
+
+	private static final Counter FRAMES_CLASSIFIED = Metrics.counter("batch_frames_classified_total");
+	private static final Counter SEEK_FALLBACKS = Metrics.counter("batch_seek_fallbacks_total");
+	private static final Counter CHUNK_FAILURES = Metrics.counter("batch_chunk_failures_total");
+	private static final Histogram CHUNK_LATENCY = Metrics.histogram("batch_chunk_latency_us");
+
+	private final String video;
+	private final int start;
+	private final int end;
+	private final int stride;
+
+	/**
+	 * @param stride classifica 1 a cada {@code stride} frames ({@code start}
+	 *               deve ser múltiplo dele)
+	 */
+	ChunkTask(String video, int start, int end, int stride) {
+		this.video = video;
+		this.start = start;
+		this.end = end;
+		this.stride = stride;
+	}
+
+	@Override
+	protected StatusRuns compute() {
+		long t0 = System.nanoTime();
+		StatusRuns runs = new StatusRuns();
+
+		VideoCapture capture = new VideoCapture(video);
+		Mat frame = new Mat();
+		Mat resized = new Mat();
+		Mat gray = new Mat();
+
+		try {
+			if (!capture.isOpened())
+				return failed(runs, "não foi possível abrir o vídeo");
+			if (!seek(capture))
+				return failed(runs, "falha ao posicionar no frame " + start);
+
+			FaceClassifier classifier = CLASSIFIERS.get();
+			int f = start;
+			while (f < end) {
+				if (!capture.read(frame) || frame.empty())
+					break;
+
+				Imgproc.resize(frame, resized, FRAME_SIZE);
+				Imgproc.cvtColor(resized, gray, Imgproc.COLOR_BGR2GRAY);
+				String status = classifier.classify(gray).status;
+				FRAMES_CLASSIFIED.inc();
+
+				// Frames herdados: só avança o decodificador, sem converter. O
+				// intervalo cobre apenas os que existem (o vídeo pode acabar antes
+				// de end, que nem é conhecido quando a contagem falta)
+				int wanted = Math.min(stride, end - f);
+				int span = 1;
+				while (span < wanted && capture.grab())
+					span++;
+
+				runs.add(status, f, span);
+				if (span < wanted)
+					break;
+				f += span;
+			}
+			return runs;
+		} finally {
+			frame.release();
+			resized.release();
+			gray.release();
+			capture.release();
+			CHUNK_LATENCY.recordSince(t0);
+		}
+	}
+
+	/**
+	 * Trecho sem nenhum frame lido: registra para que a lacuna nos eventos não
+	 * passe despercebida (o total de frames do vídeo também sai menor).
+	 */
+	private StatusRuns failed(StatusRuns runs, String reason) {
+		CHUNK_FAILURES.inc();
+		System.err.printf("[BATCH] %s: trecho [%d, %s) ignorado: %s%n", video, start,
+				end == Integer.MAX_VALUE ? "fim" : String.valueOf(end), reason);
+		return runs;
+	}
+
+	/**
+	 * Posiciona a captura em {@code start}. Alguns contêineres ignoram ou
+	 * arredondam o seek por frame (para o keyframe anterior); nesse caso
+	 * reabre e avança frame a frame, mais lento porém exato.
+	 */
+	private boolean seek(VideoCapture capture) {
+		if (start == 0)
+			return true;
+
+		if (capture.set(Videoio.CAP_PROP_POS_FRAMES, start)
+				&& (int) capture.get(Videoio.CAP_PROP_POS_FRAMES) == start)
+			return true;
+
+		SEEK_FALLBACKS.inc();
+		capture.release();
+		if (!capture.open(video))
+			return false;
+
+		for (int f = 0; f < start; f++) {
+			if (!capture.grab())
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,108 @@
+package com.argusvision.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.argusvision.camera.StatusDebouncer;
+
+/**
+ * Status de rosto por frame, compactados em intervalos [from, to) de índices
+ * de frame do vídeo. Cada trecho (chunk) produz os seus e o vídeo inteiro é a
+ * concatenação, em ordem, dos trechos.
+ *
+ * Não é thread-safe: cada tarefa tem a sua instância até a costura.
+ */
+final class StatusRuns {
+
+	static final class Run {
+		final String status;
+		final int from;
+		int to;
+
+		Run(String status, int from, int to) {
+			this.status = status;
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	/** Status estabilizado e o instante, em ms desde o início do vídeo, em que foi emitido */
+	static final class Event {
+		final long offsetMs;
+		final String status;
+
+		Event(long offsetMs, String status) {
+			this.offsetMs = offsetMs;
+			this.status = status;
+		}
+	}
+
+	private final List<Run> runs = new ArrayList<>();
+	private int frames;
+
+	/**
+	 * Registra o status do frame {@code frame}, válido até {@code frame + step}
+	 * (com amostragem, os frames pulados herdam o último status).
+	 */
+	void add(String status, int frame, int step) {
+		Run last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+		if (last != null && last.to == frame && last.status.equals(status))
+			last.to = frame + step;
+		else
+			runs.add(new Run(status, frame, frame + step));
+		frames += step;
+	}
+
+	/**
+	 * Anexa o trecho seguinte; intervalos iguais e contíguos na fronteira viram um só.
+	 */
+	void append(StatusRuns next) {
+		for (Run r : next.runs) {
+			Run last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+			if (last != null && last.to == r.from && last.status.equals(r.status))
+				last.to = r.to;
+			else
+				runs.add(new Run(r.status, r.from, r.to));
+		}
+		frames += next.frames;
+	}
+
+	/**
+	 * Costura: uma única passada pela regra de estabilidade sobre todos os
+	 * intervalos, em ordem, com o relógio do vídeo. Só os frames classificados
+	 * (1 a cada {@code stride}) passam pela regra; os herdados repetem o status.
+	 */
+	List<Event> stableEvents(double fps, int stride, StatusDebouncer debouncer) {
+		List<Event> events = new ArrayList<>();
+		for (Run run : runs) {
+			for (int f = run.from; f < run.to; f += stride) {
+				long now = offsetMs(f, fps);
+				if (debouncer.update(run.status, now))
+					events.add(new Event(now, run.status));
+			}
+		}
+		return events;
+	}
+
+	/** Instante do último frame classificado (0 se não há nenhum) */
+	long lastSampleMs(double fps, int stride) {
+		if (runs.isEmpty())
+			return 0;
+
+		Run last = runs.get(runs.size() - 1);
+		return offsetMs(last.from + (last.to - 1 - last.from) / stride * stride, fps);
+	}
+
+	private static long offsetMs(int frame, double fps) {
+		return Math.round(frame * 1000.0 / fps);
+	}
+
+	List<Run> runs() {
+		return runs;
+	}
+
+	/** Frames cobertos (lidos ou herdados pela amostragem) */
+	int frames() {
+		return frames;
+	}
+}
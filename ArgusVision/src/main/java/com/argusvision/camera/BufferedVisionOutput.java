@@ -0,0 +1,229 @@
+package com.argusvision.camera;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.opencv.core.Mat;
+
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Metrics;
+import com.argusvision.util.VisionContext;
+
+/**
+ * Decorador de {@link VisionOutput} que desacopla a saída do loop de visão.
+ *
+ * O loop apenas publica o valor mais recente (frame, status, rosto, movimento) e enfileira
+ * logs; uma thread própria entrega tudo ao delegate em intervalos fixos:
+ * - frame, status, rosto e movimento: latest-value-wins (valores intermediários são descartados)
+ * - logs: entregues em lote via {@link VisionOutput#addLogs(List)}
+ */
+public class BufferedVisionOutput implements VisionOutput, AutoCloseable {
+
+	/** Intervalo padrão de entrega (~15 atualizações por segundo) */
+	public static final long DEFAULT_DISPATCH_INTERVAL_MS = 66;
+
+	/** Limite de logs pendentes; acima disso os mais antigos são descartados */
+	private static final int MAX_PENDING_LOGS = 1000;
+
+	private static final Counter FRAMES_COALESCED = Metrics.counter("output_frames_coalesced_total");
+	private static final Counter LOGS_DROPPED = Metrics.counter("output_logs_dropped_total");
+
+	private final VisionOutput delegate;
+	private final boolean forwardFrames;
+
+	private final AtomicReference<Mat> pendingFrame = new AtomicReference<>();
+	/** Mat já entregue, reaproveitado na próxima cópia para evitar alocação */
+	private final AtomicReference<Mat> spareFrame = new AtomicReference<>();
+
+	private final AtomicReference<ColoredStatus> pendingFace = new AtomicReference<>();
+	private final AtomicReference<ColoredStatus> pendingMotion = new AtomicReference<>();
+	private final AtomicReference<String> pendingStatus = new AtomicReference<>();
+
+	private final ConcurrentLinkedQueue<String> pendingLogs = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingLogCount = new AtomicInteger();
+	private final AtomicInteger droppedLogs = new AtomicInteger();
+
+	private final ScheduledExecutorService dispatcher;
+
+	private volatile boolean closed;
+
+	/**
+	 * @param delegate      saída real (GUI ou headless)
+	 * @param forwardFrames se false, frames são ignorados sem cópia (ex: modo headless)
+	 */
+	public BufferedVisionOutput(VisionOutput delegate, boolean forwardFrames) {
+		this(delegate, forwardFrames, DEFAULT_DISPATCH_INTERVAL_MS);
+	}
+
+	public BufferedVisionOutput(VisionOutput delegate, boolean forwardFrames, long dispatchIntervalMs) {
+		this.delegate = delegate;
+		this.forwardFrames = forwardFrames;
+
+		this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "Vision-Output-Dispatcher");
+			t.setDaemon(true);
+			return t;
+		});
+		dispatcher.scheduleWithFixedDelay(this::dispatch, dispatchIntervalMs, dispatchIntervalMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Copia o frame para um buffer próprio, pois o loop de visão reutiliza o Mat.
+	 */
+	@Override
+	public void updateFrame(Mat frame) {
+		if (!forwardFrames || closed || frame == null || frame.empty())
+			return;
+
+		Mat copy = spareFrame.getAndSet(null);
+		if (copy == null)
+			copy = new Mat();
+		frame.copyTo(copy);
+
+		Mat replaced = pendingFrame.getAndSet(copy);
+		if (replaced != null) {
+			FRAMES_COALESCED.inc();
+			recycle(replaced);
+		}
+	}
+
+	@Override
+	public void updateFaceStatus(String status, Color color) {
+		if (closed) {
+			delegate.updateFaceStatus(status, color);
+			return;
+		}
+		pendingFace.set(new ColoredStatus(status, color));
+	}
+
+	@Override
+	public void updateMotionStatus(String status, Color color) {
+		if (closed) {
+			delegate.updateMotionStatus(status, color);
+			return;
+		}
+		pendingMotion.set(new ColoredStatus(status, color));
+	}
+
+	@Override
+	public void setStatus(String status) {
+		if (closed) {
+			delegate.setStatus(status);
+			return;
+		}
+		pendingStatus.set(status);
+	}
+
+	@Override
+	public void addLog(String message) {
+		if (closed) {
+			delegate.addLog(message);
+			return;
+		}
+
+		pendingLogs.offer(message);
+		if (pendingLogCount.incrementAndGet() > MAX_PENDING_LOGS && pendingLogs.poll() != null) {
+			pendingLogCount.decrementAndGet();
+			droppedLogs.incrementAndGet();
+			LOGS_DROPPED.inc();
+		}
+	}
+
+	/**
+	 * Rara (início e troca de sessão): repassada direto, sem coalescer.
+	 */
+	@Override
+	public void setContext(VisionContext context) {
+		delegate.setContext(context);
+	}
+
+	/**
+	 * Entrega ao delegate tudo o que foi acumulado desde a última execução.
+	 */
+	private void dispatch() {
+		try {
+			String status = pendingStatus.getAndSet(null);
+			if (status != null)
+				delegate.setStatus(status);
+
+			ColoredStatus face = pendingFace.getAndSet(null);
+			if (face != null)
+				delegate.updateFaceStatus(face.status, face.color);
+
+			ColoredStatus motion = pendingMotion.getAndSet(null);
+			if (motion != null)
+				delegate.updateMotionStatus(motion.status, motion.color);
+
+			drainLogs();
+
+			Mat frame = pendingFrame.getAndSet(null);
+			if (frame != null) {
+				delegate.updateFrame(frame);
+				recycle(frame);
+			}
+		} catch (Exception e) {
+			// Nunca deixa uma falha do delegate cancelar o agendamento
+			System.err.println("[ArgusVision] Erro ao atualizar saída: " + e.getMessage());
+		}
+	}
+
+	private void drainLogs() {
+		int dropped = droppedLogs.getAndSet(0);
+		List<String> batch = new ArrayList<>();
+		if (dropped > 0)
+			batch.add("(" + dropped + " mensagens de log descartadas)");
+
+		String message;
+		while ((message = pendingLogs.poll()) != null) {
+			pendingLogCount.decrementAndGet();
+			batch.add(message);
+		}
+
+		if (!batch.isEmpty())
+			delegate.addLogs(batch);
+	}
+
+	private void recycle(Mat frame) {
+		if (frame != null && !spareFrame.compareAndSet(null, frame))
+			frame.release();
+	}
+
+	/**
+	 * Para o dispatcher e entrega o que ainda estiver pendente. Chamadas
+	 * posteriores de status e log passam direto para o delegate.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		dispatcher.shutdown();
+		try {
+			dispatcher.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		dispatch();
+
+		Mat spare = spareFrame.getAndSet(null);
+		if (spare != null)
+			spare.release();
+	}
+
+	private static final class ColoredStatus {
+		final String status;
+		final Color color;
+
+		ColoredStatus(String status, Color color) {
+			this.status = status;
+			this.color = color;
+		}
+	}
+}
@@ -2,14 +2,22 @@ package com.argusvision.camera;
 
 import org.opencv.core.Mat;
 import javax.swing.*;
+import javax.swing.text.BadLocationException;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+
+import com.argusvision.util.VisionContext;
 
 public class CameraViewer extends JFrame implements VisionOutput {
-    
+
+    /** Máximo de linhas mantidas no painel de log (as mais antigas são removidas) */
+    private static final int MAX_LOG_LINES = 500;
+
     private JLabel cameraLabel;
     private JLabel statusLabel;
     private JLabel faceLabel;
@@ -117,16 +125,43 @@ public class CameraViewer extends JFrame implements VisionOutput {
     }
 
     public void addLog(String message) {
+        addLogs(Collections.singletonList(message));
+    }
+
+    /**
+     * Anexa várias linhas em um único invokeLater e descarta as mais antigas
+     * quando o log passa de MAX_LOG_LINES.
+     */
+    @Override
+    public void addLogs(List<String> messages) {
+        String time = new SimpleDateFormat("HH:mm:ss").format(new Date());
+        StringBuilder text = new StringBuilder();
+        for (String message : messages) {
+            text.append('[').append(time).append("] ").append(message).append('\n');
+        }
+
         SwingUtilities.invokeLater(() -> {
-            String time = new SimpleDateFormat("HH:mm:ss").format(new Date());
-            logArea.append("[" + time + "] " + message + "\n");
+            logArea.append(text.toString());
+            trimLog();
 
             logArea.setCaretPosition(logArea.getDocument().getLength());
         });
     }
 
+    private void trimLog() {
+        // A última linha é sempre vazia (após o \n final)
+        int excess = logArea.getLineCount() - 1 - MAX_LOG_LINES;
+        if (excess <= 0) return;
+
+        try {
+            logArea.replaceRange("", 0, logArea.getLineEndOffset(excess - 1));
+        } catch (BadLocationException e) {
+            logArea.setText("");
+        }
+    }
+
     // Método utilitário de conversão
-    private BufferedImage matToBufferedImage(Mat mat) {
+    public static BufferedImage matToBufferedImage(Mat mat) {
         int type = BufferedImage.TYPE_BYTE_GRAY;
         if (mat.channels() > 1) {
             type = BufferedImage.TYPE_3BYTE_BGR;
@@ -140,6 +175,11 @@ public class CameraViewer extends JFrame implements VisionOutput {
         return image;
     }
 
+    @Override
+    public void setContext(VisionContext context) {
+        setIdentity(context.student(), context.exam());
+    }
+
     public void setIdentity(String student, String exam) {
         SwingUtilities.invokeLater(() -> {
             identityLabel.setText("Aluno: " + student + " | Prova: " + exam);
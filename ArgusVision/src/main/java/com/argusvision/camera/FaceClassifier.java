@@ -0,0 +1,124 @@
+package com.argusvision.camera;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfRect;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.objdetect.CascadeClassifier;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Detecção do rosto e classificação da sua posição no quadro.
+ *
+ * Não é thread-safe (o CascadeClassifier nativo e o buffer de resultados são
+ * reutilizados): use uma instância por thread.
+ */
+public class FaceClassifier {
+
+	public static final String DEFAULT_CASCADE = "facedetector/lbpcascade_frontalface_improved.xml";
+
+	public static final String SEM_ROSTO = "SEM_ROSTO";
+
+	/** Tamanho mínimo do rosto para um quadro de {@link #REFERENCE_WIDTH} de largura */
+	private static final Size MIN_FACE_SIZE = new Size(80, 80);
+	private static final int REFERENCE_WIDTH = 640;
+	private static final Size MAX_FACE_SIZE = new Size();
+
+	private final CascadeClassifier detector;
+	private final MatOfRect faces = new MatOfRect();
+
+	/** Tamanho mínimo escalado para a última largura vista (o QoS pode reduzir o quadro) */
+	private Size minFaceSize = MIN_FACE_SIZE;
+	private int minFaceWidth = REFERENCE_WIDTH;
+
+	public FaceClassifier() {
+		this(DEFAULT_CASCADE);
+	}
+
+	public FaceClassifier(String cascadeResource) {
+		this.detector = loadCascade(cascadeResource);
+	}
+
+	/**
+	 * Resultado de uma classificação: status e o retângulo do rosto (null se
+	 * nenhum rosto foi encontrado).
+	 */
+	public static final class Result {
+		public final String status;
+		public final Rect face;
+
+		Result(String status, Rect face) {
+			this.status = status;
+			this.face = face;
+		}
+
+		public boolean hasFace() {
+			return face != null;
+		}
+	}
+
+	/**
+	 * Detecta o rosto em {@code gray} e classifica sua posição relativa ao quadro.
+	 */
+	public Result classify(Mat gray) {
+		if (gray.width() != minFaceWidth) {
+			double side = MIN_FACE_SIZE.width * gray.width() / REFERENCE_WIDTH;
+			minFaceSize = new Size(side, side);
+			minFaceWidth = gray.width();
+		}
+
+		detector.detectMultiScale(gray, faces, 1.1, 3, 0, minFaceSize, MAX_FACE_SIZE);
+
+		Rect[] detected = faces.toArray();
+		if (detected.length == 0)
+			return new Result(SEM_ROSTO, null);
+
+		Rect face = detected[0];
+		return new Result(classifyPosition(face, gray.width(), gray.height()), face);
+	}
+
+	/**
+	 * Classifica a posição do centro do rosto em relação ao quadro.
+	 */
+	public static String classifyPosition(Rect face, double w, double h) {
+		int cx = face.x + face.width / 2;
+		int cy = face.y + face.height / 2;
+
+		if (cx < w * 0.30)
+			return "ROSTO_ESQUERDA";
+		else if (cx > w * 0.70)
+			return "ROSTO_DIREITA";
+		else if (cy < h * 0.30)
+			return "ROSTO_CIMA";
+		else if (cy > h * 0.70)
+			return "ROSTO_BAIXO";
+		else
+			return "ROSTO_CENTRO";
+	}
+
+	/**
+	 * Carrega o classificador Haar/LBP a partir dos recursos do projeto.
+	 */
+	private static CascadeClassifier loadCascade(String path) {
+		try (InputStream is = FaceClassifier.class.getClassLoader().getResourceAsStream(path)) {
+			if (is == null)
+				throw new RuntimeException("Cascade não encontrado: " + path);
+
+			Path temp = Files.createTempFile("lbp-", ".xml");
+			Files.copy(is, temp, StandardCopyOption.REPLACE_EXISTING);
+
+			CascadeClassifier cc = new CascadeClassifier(temp.toString());
+			Files.deleteIfExists(temp); // o modelo já foi lido para a memória nativa
+			if (cc.empty())
+				throw new RuntimeException("Cascade inválido");
+
+			return cc;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -2,18 +2,48 @@ package com.argusvision.camera;
 
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
 import org.opencv.imgcodecs.Imgcodecs;
 
+import com.argusvision.metrics.Histogram;
+import com.argusvision.metrics.Metrics;
+
 import java.util.Base64;
 
 public class FrameEncoder {
+	private static final Histogram ENCODE_LATENCY = Metrics.histogram("frame_encode_latency_us");
+	private static final Histogram ENCODE_BYTES = Metrics.histogram("frame_encode_bytes");
+
 	public static String encodeToBase64(Mat frame) {
+		long start = System.nanoTime();
 		MatOfByte buffer = new MatOfByte();
 
 		// JPEG com compressão (IMPORTANTE)
         Imgcodecs.imencode(".jpg", frame, buffer);
-        
+
+        return finish(buffer, start);
+	}
+
+	/**
+	 * @param quality qualidade JPEG (0-100); o padrão do OpenCV é 95
+	 */
+	public static String encodeToBase64(Mat frame, int quality) {
+		long start = System.nanoTime();
+		MatOfByte buffer = new MatOfByte();
+		MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG_QUALITY, quality);
+
+        Imgcodecs.imencode(".jpg", frame, buffer, params);
+        params.release();
+
+        return finish(buffer, start);
+	}
+
+	private static String finish(MatOfByte buffer, long start) {
         byte[] bytes = buffer.toArray();
+        buffer.release();
+
+        ENCODE_BYTES.record(bytes.length);
+        ENCODE_LATENCY.recordSince(start);
         return Base64.getEncoder().encodeToString(bytes);
 	}
 }
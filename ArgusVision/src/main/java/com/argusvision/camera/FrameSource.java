@@ -0,0 +1,24 @@
+package com.argusvision.camera;
+
+import org.opencv.core.Mat;
+
+/**
+ * Origem dos frames do loop de visão (webcam, arquivo de vídeo ou frames
+ * sintéticos em testes de carga).
+ */
+public interface FrameSource {
+
+	/**
+	 * @return false se a origem não estiver disponível
+	 */
+	boolean open();
+
+	/**
+	 * Lê o próximo frame para dentro de {@code frame}.
+	 *
+	 * @return false se não houve frame nesta leitura
+	 */
+	boolean read(Mat frame);
+
+	void release();
+}
@@ -2,10 +2,21 @@ package com.argusvision.camera;
 
 import org.opencv.core.Mat;
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
 import com.argusvision.util.FileLogger;
+import com.argusvision.util.VisionContext;
 
 public class HeadlessVisionOutput implements VisionOutput {
 
+	private volatile VisionContext context = VisionContext.UNKNOWN;
+
+	@Override
+	public void setContext(VisionContext context) {
+		this.context = context;
+	}
+
 	@Override
 	public void updateFrame(Mat frame) {
         // Ignora — frame já é enviado via VisionEventSender
@@ -13,16 +24,30 @@ public class HeadlessVisionOutput implements VisionOutput {
 
 	@Override
     public void updateFaceStatus(String status, Color color) {
-        FileLogger.logTxt("[FACE] " + status);
+        FileLogger.logTxt(context, "[FACE] " + status);
+    }
+
+    @Override
+    public void updateMotionStatus(String status, Color color) {
+        FileLogger.logTxt(context, "[MOTION] " + status);
     }
 
     @Override
     public void setStatus(String status) {
-        FileLogger.logTxt("[STATUS] " + status);
+        FileLogger.logTxt(context, "[STATUS] " + status);
     }
 
     @Override
     public void addLog(String message) {
-        FileLogger.logTxt("[LOG] " + message);
+        FileLogger.logTxt(context, "[LOG] " + message);
+    }
+
+    @Override
+    public void addLogs(List<String> messages) {
+        List<String> lines = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            lines.add("[LOG] " + message);
+        }
+        FileLogger.logTxt(context, lines);
     }
 }
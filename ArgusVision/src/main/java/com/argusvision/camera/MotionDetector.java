@@ -0,0 +1,69 @@
+package com.argusvision.camera;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.video.BackgroundSubtractorMOG2;
+import org.opencv.video.Video;
+
+/**
+ * Detecção de movimento por subtração de fundo (MOG2).
+ *
+ * Trabalha sobre o quadro cinza já produzido para a detecção de rosto,
+ * reduzido para 160x120: o custo por frame fica pequeno e o modelo de fundo é
+ * atualizado incrementalmente a cada chamada (taxa de aprendizado fixa).
+ *
+ * Não é thread-safe: pertence ao loop de visão.
+ */
+public class MotionDetector {
+
+	public static final String MOVIMENTO = "MOVIMENTO";
+	public static final String SEM_MOVIMENTO = "SEM_MOVIMENTO";
+
+	private static final Size DETECTION_SIZE = new Size(160, 120);
+
+	/** Quantos frames o modelo de fundo "lembra" */
+	private static final int HISTORY = 300;
+	private static final double VAR_THRESHOLD = 25;
+	private static final double LEARNING_RATE = 1.0 / HISTORY;
+
+	/** Fração mínima de pixels em primeiro plano para considerar movimento */
+	private static final double MOTION_RATIO_THRESHOLD = 0.02;
+
+	private final BackgroundSubtractorMOG2 subtractor;
+
+	private final Mat small = new Mat();
+	private final Mat fgMask = new Mat();
+
+	private double lastRatio;
+
+	public MotionDetector() {
+		this.subtractor = Video.createBackgroundSubtractorMOG2(HISTORY, VAR_THRESHOLD, false);
+	}
+
+	/**
+	 * Atualiza o modelo de fundo com o quadro e classifica o movimento.
+	 *
+	 * @param gray quadro em tons de cinza (qualquer resolução)
+	 */
+	public String detect(Mat gray) {
+		Imgproc.resize(gray, small, DETECTION_SIZE, 0, 0, Imgproc.INTER_AREA);
+		subtractor.apply(small, fgMask, LEARNING_RATE);
+
+		lastRatio = (double) Core.countNonZero(fgMask) / (fgMask.rows() * fgMask.cols());
+		return lastRatio >= MOTION_RATIO_THRESHOLD ? MOVIMENTO : SEM_MOVIMENTO;
+	}
+
+	/**
+	 * Fração de pixels em movimento no último quadro (0..1).
+	 */
+	public double lastRatio() {
+		return lastRatio;
+	}
+
+	public void release() {
+		small.release();
+		fgMask.release();
+	}
+}
@@ -0,0 +1,251 @@
+package com.argusvision.camera;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+import org.opencv.core.Size;
+
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Metrics;
+
+/**
+ * Ajusta o custo do monitoramento à carga da máquina do aluno.
+ *
+ * A cada {@code evalSec} compara três sinais com o nível atual:
+ * - CPU do sistema (o navegador da prova disputa os mesmos núcleos)
+ * - CPU do próprio processo
+ * - latência média do processamento de um frame em relação ao orçamento do
+ *   nível ({@link Level#frameBudgetMs}); a pausa entre frames fica fora da
+ *   conta, pois é somada depois do processamento
+ *
+ * Sobrecarga em {@link #DEGRADE_AFTER} avaliações seguidas desce um nível;
+ * folga em {@link #RECOVER_AFTER} avaliações seguidas sobe um. A recuperação
+ * exige CPU abaixo de {@code cpuLow} (bem abaixo de {@code cpuHigh}) e uma
+ * latência que caiba no nível de cima, então o governor não oscila.
+ *
+ * Sinais de CPU indisponíveis (negativos) não contam como sobrecarga nem
+ * como folga: sem a CPU do sistema o nível não sobe; a CPU do processo só
+ * entra na conta quando a JVM a fornece.
+ *
+ * Configuração (system properties):
+ * - argusvision.qos.enabled (padrão true; false fixa o nível NORMAL)
+ * - argusvision.qos.cpuHigh (padrão 0.85) / argusvision.qos.cpuLow (padrão 0.60)
+ * - argusvision.qos.processHigh (padrão 0.50): fração da máquina usada pelo agente
+ * - argusvision.qos.evalSec (padrão 2)
+ *
+ * {@link #update} pertence ao loop de visão; {@link #level()} pode ser lido de
+ * qualquer thread.
+ */
+public class QualityGovernor {
+
+	/**
+	 * Níveis em ordem crescente de economia. NORMAL reproduz os valores fixos
+	 * anteriores (pausa de 33 ms após cada frame, 640x480, rosto em todo frame,
+	 * upload a cada 2 s com a qualidade JPEG padrão do OpenCV).
+	 */
+	public enum Level {
+		NORMAL(33, 50, new Size(640, 480), 1, 2, 95),
+		REDUZIDO(66, 80, new Size(640, 480), 2, 3, 80),
+		ECONOMIA(100, 120, new Size(480, 360), 2, 5, 70),
+		MINIMO(200, 200, new Size(320, 240), 3, 10, 60);
+
+		/**
+		 * Pausa após o processamento de cada frame; o ciclo efetivo é
+		 * processamento + pausa, como no sleep fixo anterior
+		 */
+		public final long pauseMs;
+		/**
+		 * Processamento médio por frame aceitável no nível; acima dele o loop
+		 * (NORMAL: ciclo de mais de ~83 ms, menos de 12 fps) conta como sobrecarga
+		 */
+		public final long frameBudgetMs;
+		/** Resolução de análise (rosto, movimento, frame enviado) */
+		public final Size frameSize;
+		/** Detecta o rosto 1 a cada N frames; o movimento roda em todos */
+		public final int detectEvery;
+		public final int uploadIntervalSec;
+		public final int jpegQuality;
+
+		Level(long pauseMs, long frameBudgetMs, Size frameSize, int detectEvery, int uploadIntervalSec,
+				int jpegQuality) {
+			this.pauseMs = pauseMs;
+			this.frameBudgetMs = frameBudgetMs;
+			this.frameSize = frameSize;
+			this.detectEvery = detectEvery;
+			this.uploadIntervalSec = uploadIntervalSec;
+			this.jpegQuality = jpegQuality;
+		}
+	}
+
+	/** Avaliações seguidas com sobrecarga para descer um nível */
+	static final int DEGRADE_AFTER = 2;
+	/** Avaliações seguidas com folga para subir um nível */
+	static final int RECOVER_AFTER = 5;
+
+	private static final Counter LEVEL_CHANGES = Metrics.counter("qos_level_changes_total");
+
+	/** Gauge de CPU ainda sem leitura válida (não é exposto até haver uma) */
+	private static final long NO_READING = Long.MIN_VALUE;
+
+	/**
+	 * Último nível escolhido e últimas leituras válidas de CPU, de todos os
+	 * governors da JVM (a CPU é da máquina e do processo, não do monitor).
+	 */
+	private static final AtomicInteger LEVEL = new AtomicInteger(Level.NORMAL.ordinal());
+	private static final AtomicLong SYSTEM_CPU_PCT = new AtomicLong(NO_READING);
+	private static final AtomicLong PROCESS_CPU_PCT = new AtomicLong(NO_READING);
+
+	static {
+		Metrics.gauge("qos_level", LEVEL::get);
+	}
+
+	private final boolean enabled = Boolean.parseBoolean(System.getProperty("argusvision.qos.enabled", "true"));
+	private final double cpuHigh = Double.parseDouble(System.getProperty("argusvision.qos.cpuHigh", "0.85"));
+	private final double cpuLow = Double.parseDouble(System.getProperty("argusvision.qos.cpuLow", "0.60"));
+	private final double processHigh = Double.parseDouble(System.getProperty("argusvision.qos.processHigh", "0.50"));
+	private final long evalMs = Long.getLong("argusvision.qos.evalSec", 2) * 1000;
+
+	/** CPU do sistema e do processo (0..1; negativo se indisponível) */
+	private final DoubleSupplier systemCpu;
+	private final DoubleSupplier processCpu;
+
+	private volatile Level level = Level.NORMAL;
+
+	private long windowStart;
+	private long loopNanos;
+	private int loops;
+
+	private int overloaded;
+	private int calm;
+
+	private volatile double lastSystemCpu = -1;
+	private volatile double lastProcessCpu = -1;
+
+	public QualityGovernor() {
+		this(ManagementFactory.getOperatingSystemMXBean());
+	}
+
+	private QualityGovernor(OperatingSystemMXBean os) {
+		this(() -> systemCpu(os), () -> os instanceof com.sun.management.OperatingSystemMXBean
+				? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad()
+				: -1);
+	}
+
+	/**
+	 * @param systemCpu  CPU do sistema; nos testes substitui o MXBean
+	 * @param processCpu CPU do processo
+	 */
+	QualityGovernor(DoubleSupplier systemCpu, DoubleSupplier processCpu) {
+		this.systemCpu = systemCpu;
+		this.processCpu = processCpu;
+	}
+
+	public Level level() {
+		return level;
+	}
+
+	/**
+	 * Registra o tempo de processamento de uma iteração do loop.
+	 */
+	public void recordLoop(long nanos) {
+		loopNanos += nanos;
+		loops++;
+	}
+
+	/**
+	 * Avalia a carga se o período de avaliação expirou.
+	 *
+	 * @return o novo nível, ou null se não mudou
+	 */
+	public Level update(long now) {
+		if (windowStart == 0)
+			windowStart = now;
+		if (!enabled || now - windowStart < evalMs || loops == 0)
+			return null;
+
+		double avgLoopMs = loopNanos / 1e6 / loops;
+		loopNanos = 0;
+		loops = 0;
+		windowStart = now;
+
+		double system = systemCpu.getAsDouble();
+		double process = processCpu.getAsDouble();
+		lastSystemCpu = system;
+		lastProcessCpu = process;
+		publish(SYSTEM_CPU_PCT, "qos_system_cpu_pct", system);
+		publish(PROCESS_CPU_PCT, "qos_process_cpu_pct", process);
+
+		Level current = level;
+		boolean over = (available(system) && system >= cpuHigh)
+				|| (available(process) && process >= processHigh)
+				|| avgLoopMs > current.frameBudgetMs;
+
+		// Subir só com folga: metade do orçamento do nível de cima
+		Level better = current.ordinal() > 0 ? Level.values()[current.ordinal() - 1] : null;
+		boolean slack = better != null && available(system) && system < cpuLow
+				&& (!available(process) || process < processHigh / 2)
+				&& avgLoopMs < better.frameBudgetMs * 0.5;
+
+		overloaded = over ? overloaded + 1 : 0;
+		calm = slack ? calm + 1 : 0;
+
+		Level next = null;
+		if (overloaded >= DEGRADE_AFTER && current.ordinal() < Level.values().length - 1)
+			next = Level.values()[current.ordinal() + 1];
+		else if (calm >= RECOVER_AFTER)
+			next = better;
+
+		if (next == null)
+			return null;
+
+		overloaded = 0;
+		calm = 0;
+		level = next;
+		LEVEL.set(next.ordinal());
+		LEVEL_CHANGES.inc();
+		return next;
+	}
+
+	/**
+	 * Resumo dos sinais da última avaliação (para logs).
+	 */
+	public String describeLoad() {
+		return "cpu sistema " + percent(lastSystemCpu) + ", processo " + percent(lastProcessCpu);
+	}
+
+	private static String percent(double load) {
+		return available(load) ? Math.round(load * 100) + "%" : "n/d";
+	}
+
+	/** Negativo: sinal indisponível nesta JVM/SO (ou ainda sem amostra) */
+	private static boolean available(double load) {
+		return load >= 0;
+	}
+
+	/**
+	 * Atualiza o gauge com uma leitura válida; o gauge só é registrado na
+	 * primeira, para nunca expor o -1 de "indisponível" como -100%.
+	 */
+	private static void publish(AtomicLong gauge, String name, double load) {
+		if (!available(load))
+			return;
+
+		if (gauge.getAndSet(Math.round(load * 100)) == NO_READING)
+			Metrics.gauge(name, gauge::get);
+	}
+
+	/**
+	 * CPU do sistema (0..1): {@code getCpuLoad} da HotSpot ou, na falta dela,
+	 * load average / núcleos. Negativo se indisponível.
+	 */
+	private static double systemCpu(OperatingSystemMXBean os) {
+		if (os instanceof com.sun.management.OperatingSystemMXBean)
+			return ((com.sun.management.OperatingSystemMXBean) os).getCpuLoad();
+
+		double load = os.getSystemLoadAverage();
+		return load < 0 ? -1 : Math.min(1, load / os.getAvailableProcessors());
+	}
+}
@@ -0,0 +1,67 @@
+package com.argusvision.camera;
+
+/**
+ * Regra de estabilidade aplicada aos status detectados a cada frame.
+ *
+ * Um status só é emitido quando:
+ * - permaneceu o mesmo por pelo menos {@code stableTimeMs}
+ * - é diferente do último emitido
+ * - e o intervalo mínimo desde o último envio expirou
+ *
+ * Com {@code minIntervalMs} = 0 vale só a estabilidade (ex: linha do tempo,
+ * que não pode perder status curtos); {@link #stableSince()} dá o instante
+ * em que o status emitido apareceu.
+ *
+ * Não é thread-safe: pertence ao loop que o alimenta.
+ */
+public class StatusDebouncer {
+
+	private final long stableTimeMs;
+	private final long minIntervalMs;
+
+	private String pendingStatus = "";
+	private long pendingSince = 0;
+
+	private String lastStatus = "";
+	private long lastSentTime = 0;
+
+	public StatusDebouncer(long stableTimeMs, long minIntervalMs) {
+		this.stableTimeMs = stableTimeMs;
+		this.minIntervalMs = minIntervalMs;
+	}
+
+	/**
+	 * @return true se {@code status} deve ser emitido agora
+	 */
+	public boolean update(String status, long now) {
+		/*
+		 * Se o status mudou, começamos a contar o tempo de estabilidade
+		 */
+		if (!status.equals(pendingStatus)) {
+			pendingStatus = status;
+			pendingSince = now;
+			return false;
+		}
+
+		/*
+		 * Se o status ainda não ficou estável tempo suficiente, ignoramos
+		 */
+		if (now - pendingSince < stableTimeMs)
+			return false;
+
+		if (!status.equals(lastStatus) && now - lastSentTime >= minIntervalMs) {
+			lastStatus = status;
+			lastSentTime = now;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Instante em que o status atual (o último passado a {@link #update})
+	 * apareceu, antes do tempo de estabilidade.
+	 */
+	public long stableSince() {
+		return pendingSince;
+	}
+}
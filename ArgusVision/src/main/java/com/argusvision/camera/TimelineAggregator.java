@@ -0,0 +1,193 @@
+package com.argusvision.camera;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Linha do tempo run-length dos status já estabilizados (rosto, movimento).
+ *
+ * Em vez de um evento por transição, guarda intervalos "STATUS de t1 a t2"
+ * por canal e, a cada {@link #flush}, gera um resumo compacto com:
+ * - os intervalos do período (o intervalo em aberto é cortado no instante do
+ *   flush e marcado com "open": true; o próximo resumo continua dali)
+ * - histogramas por minuto: milissegundos em cada status, por canal
+ *
+ * Nenhuma transição é perdida: o resumo contém cada mudança com seus
+ * instantes exatos. Um minuto dividido entre dois resumos aparece em ambos,
+ * com as parcelas de cada um (basta somar).
+ *
+ * Thread-safe: alimentado pelo loop de visão e esvaziado por um scheduler.
+ */
+public class TimelineAggregator {
+
+	private static final long MINUTE_MS = 60_000;
+
+	private static final class Interval {
+		final String channel;
+		final String status;
+		final long start;
+		final long end;
+		final boolean open;
+
+		Interval(String channel, String status, long start, long end, boolean open) {
+			this.channel = channel;
+			this.status = status;
+			this.start = start;
+			this.end = end;
+			this.open = open;
+		}
+	}
+
+	private static final class Run {
+		final String status;
+		long start;
+
+		Run(String status, long start) {
+			this.status = status;
+			this.start = start;
+		}
+	}
+
+	/** Intervalo corrente de cada canal */
+	private final Map<String, Run> current = new LinkedHashMap<>();
+
+	/** Intervalos fechados desde o último flush */
+	private final List<Interval> intervals = new ArrayList<>();
+
+	/** início do minuto → canal → status → ms */
+	private final TreeMap<Long, Map<String, Map<String, Long>>> minutes = new TreeMap<>();
+
+	private long windowStart = -1;
+	private int transitions;
+
+	/**
+	 * Registra um status estabilizado. Repetições do status corrente são ignoradas.
+	 *
+	 * @param since instante em que o status apareceu (antes de estabilizar);
+	 *              se for anterior ao último flush, o intervalo começa no flush
+	 */
+	public synchronized void record(String channel, String status, long since) {
+		if (windowStart < 0)
+			windowStart = since;
+		long start = Math.max(since, windowStart);
+
+		Run run = current.get(channel);
+		if (run != null) {
+			if (run.status.equals(status))
+				return;
+			// Substituído no mesmo instante em que começou (ex: cortado pelo flush): nada a fechar
+			if (start > run.start)
+				close(channel, run, start, false);
+			start = Math.max(start, run.start);
+		}
+
+		current.put(channel, new Run(status, start));
+		transitions++;
+	}
+
+	/**
+	 * Fecha o período [último flush, now] e devolve o resumo em JSON, ou null se
+	 * não houve nenhum status registrado.
+	 *
+	 * @param last true no encerramento: os intervalos em aberto são fechados de vez
+	 */
+	public synchronized String flush(long now, String student, String exam, String session, boolean last) {
+		if (windowStart < 0)
+			return null;
+
+		for (Map.Entry<String, Run> e : current.entrySet()) {
+			Run run = e.getValue();
+			close(e.getKey(), run, now, !last);
+			run.start = now;
+		}
+		if (last)
+			current.clear();
+
+		String json = toJson(now, student, exam, session);
+
+		intervals.clear();
+		minutes.clear();
+		windowStart = last ? -1 : now;
+		transitions = 0;
+		return json;
+	}
+
+	/**
+	 * Número de transições registradas desde o último flush.
+	 */
+	public synchronized int pendingTransitions() {
+		return transitions;
+	}
+
+	private void close(String channel, Run run, long end, boolean open) {
+		if (end <= run.start && open)
+			return;
+
+		intervals.add(new Interval(channel, run.status, run.start, end, open));
+
+		// Distribui a duração pelos minutos que o intervalo atravessa
+		long t = run.start;
+		while (t < end) {
+			long minute = t - t % MINUTE_MS;
+			long until = Math.min(end, minute + MINUTE_MS);
+
+			minutes.computeIfAbsent(minute, m -> new LinkedHashMap<>())
+					.computeIfAbsent(channel, c -> new TreeMap<>())
+					.merge(run.status, until - t, Long::sum);
+			t = until;
+		}
+	}
+
+	private String toJson(long now, String student, String exam, String session) {
+		StringBuilder sb = new StringBuilder(256 + intervals.size() * 96);
+		sb.append("{\"type\":\"vision_timeline\"")
+				.append(",\"student\":\"").append(student)
+				.append("\",\"exam\":\"").append(exam)
+				.append("\",\"session\":\"").append(session)
+				.append("\",\"from\":").append(windowStart)
+				.append(",\"to\":").append(now)
+				.append(",\"timestamp\":").append(now);
+
+		sb.append(",\"intervals\":[");
+		for (int i = 0; i < intervals.size(); i++) {
+			Interval in = intervals.get(i);
+			if (i > 0)
+				sb.append(',');
+			sb.append("{\"channel\":\"").append(in.channel)
+					.append("\",\"status\":\"").append(in.status)
+					.append("\",\"start\":").append(in.start)
+					.append(",\"end\":").append(in.end);
+			if (in.open)
+				sb.append(",\"open\":true");
+			sb.append('}');
+		}
+
+		sb.append("],\"minutes\":[");
+		boolean firstMinute = true;
+		for (Map.Entry<Long, Map<String, Map<String, Long>>> m : minutes.entrySet()) {
+			if (!firstMinute)
+				sb.append(',');
+			firstMinute = false;
+
+			sb.append("{\"minute\":").append(m.getKey());
+			for (Map.Entry<String, Map<String, Long>> channel : m.getValue().entrySet()) {
+				sb.append(",\"").append(channel.getKey()).append("\":{");
+				boolean firstStatus = true;
+				for (Map.Entry<String, Long> status : channel.getValue().entrySet()) {
+					if (!firstStatus)
+						sb.append(',');
+					firstStatus = false;
+					sb.append('"').append(status.getKey()).append("\":").append(status.getValue());
+				}
+				sb.append('}');
+			}
+			sb.append('}');
+		}
+
+		sb.append("]}");
+		return sb.toString();
+	}
+}
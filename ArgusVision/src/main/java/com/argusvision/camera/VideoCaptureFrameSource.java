@@ -0,0 +1,49 @@
+package com.argusvision.camera;
+
+import org.opencv.core.Mat;
+import org.opencv.videoio.VideoCapture;
+
+/**
+ * Frames de uma webcam (por índice) ou de um arquivo de vídeo via VideoCapture.
+ */
+public class VideoCaptureFrameSource implements FrameSource {
+
+	private final Integer cameraIndex;
+	private final String file;
+
+	private VideoCapture capture;
+
+	public VideoCaptureFrameSource(int cameraIndex) {
+		this.cameraIndex = cameraIndex;
+		this.file = null;
+	}
+
+	public VideoCaptureFrameSource(String file) {
+		this.cameraIndex = null;
+		this.file = file;
+	}
+
+	/**
+	 * Abre a captura. Se já estiver aberta (ex: aquecida durante a
+	 * inicialização), reaproveita.
+	 */
+	@Override
+	public boolean open() {
+		if (capture != null && capture.isOpened())
+			return true;
+
+		capture = cameraIndex != null ? new VideoCapture(cameraIndex) : new VideoCapture(file);
+		return capture.isOpened();
+	}
+
+	@Override
+	public boolean read(Mat frame) {
+		return capture.read(frame);
+	}
+
+	@Override
+	public void release() {
+		if (capture != null)
+			capture.release();
+	}
+}
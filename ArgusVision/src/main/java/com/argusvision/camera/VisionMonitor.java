@@ -2,98 +2,168 @@ package com.argusvision.camera;
 
 import org.opencv.core.*;
 import org.opencv.imgproc.Imgproc;
-import org.opencv.objdetect.CascadeClassifier;
-import org.opencv.videoio.VideoCapture;
 
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Histogram;
+import com.argusvision.metrics.Metrics;
+import com.argusvision.recorder.ClipRecorder;
 import com.argusvision.util.FileLogger;
 import com.argusvision.util.VisionContext;
 import com.argusvision.util.VisionEventSender;
 
 import java.awt.Color;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 public class VisionMonitor {
 
 	private static final int CAMERA_INDEX = 0;
-	private static final Size FRAME_SIZE = new Size(640, 480);
-	/** Intervalo fixo de envio de frame (1 segundo) */
-	private static final long FRAME_SEND_INTERVAL_SEC = 2;
 
-	/** Intervalo mínimo entre eventos de rosto */
-	private static final long FACE_SEND_INTERVAL_MS = 2000;
+	/** Espera máxima pelo fim do loop de visão em {@link #stop()} */
+	private static final long LOOP_JOIN_TIMEOUT_MS = 2000;
+
+	/** Retângulo do rosto (BGR) */
+	private static final Scalar FACE_COLOR = new Scalar(0, 150, 0);
+
+	/** Status de rosto que disparam a gravação de um clipe */
+	private static final List<String> INCIDENT_STATUSES = Arrays.asList(FaceClassifier.SEM_ROSTO, "ROSTO_ESQUERDA",
+			"ROSTO_DIREITA");
+
+	/**
+	 * Agregação da linha do tempo (-Dargusvision.timeline.enabled=true): os
+	 * status estabilizados viram resumos periódicos em vez de um evento por
+	 * transição.
+	 */
+	private static final boolean TIMELINE_ENABLED = Boolean.getBoolean("argusvision.timeline.enabled");
+	private static final long TIMELINE_FLUSH_SEC = Long.getLong("argusvision.timeline.flushSec", 60);
 
-	private final CascadeClassifier faceDetector;
+	/** Intervalo mínimo entre eventos de rosto */
+	public static final long FACE_SEND_INTERVAL_MS = 2000;
+
+	private static final Counter FRAMES_CAPTURED = Metrics.counter("vision_frames_captured_total");
+	private static final Counter FRAME_READ_FAILURES = Metrics.counter("vision_frame_read_failures_total");
+	private static final Counter FACE_EVENTS = Metrics.counter("vision_face_events_total");
+	private static final Counter MOTION_EVENTS = Metrics.counter("vision_motion_events_total");
+	private static final Counter TIMELINE_SUMMARIES = Metrics.counter("vision_timeline_summaries_total");
+	private static final Histogram FRAME_INTERVAL = Metrics.histogram("vision_frame_interval_us");
+	private static final Histogram PROCESS_LATENCY = Metrics.histogram("vision_process_latency_us");
+	private static final Histogram DETECT_LATENCY = Metrics.histogram("vision_detect_latency_us");
+	private static final Histogram MOTION_LATENCY = Metrics.histogram("vision_motion_latency_us");
+
+	private final FaceClassifier faceClassifier;
+	private final MotionDetector motionDetector;
 	private final VisionOutput output;
 	private final VisionEventSender eventSender;
+	private final FrameSource frameSource;
+
+	/** Gravador de clipes de incidentes (null se desabilitado) */
+	private final ClipRecorder clipRecorder;
+
+	/** Linha do tempo dos status (null se a agregação está desabilitada) */
+	private final TimelineAggregator timeline;
+
+	/** Nível de qualidade (fps, resolução, cadência, upload) conforme a carga */
+	private final QualityGovernor governor = new QualityGovernor();
 
-	private final String studentName;
-	private final String examName;
+	/** Último rosto detectado, redesenhado nos frames em que a detecção é pulada */
+	private Rect lastFace;
+
+	/** Identidade atual; substituída inteira se a sessão mudar no servidor */
+	private volatile VisionContext context;
 
 	private volatile boolean running;
 
-	private String lastFaceStatus = "";
-	private long lastFaceSentTime = 0;
+	/** Chamado uma única vez, após o primeiro frame processado */
+	private volatile Runnable firstFrameListener;
 
 	/** Scheduler exclusivo para envio de frames */
 	private ScheduledExecutorService frameScheduler;
 
+	/** Thread do loop de visão (null antes de {@link #start()}) */
+	private volatile Thread visionThread;
+
 	/** Último frame capturado (sempre sobrescrito) */
 	private volatile Mat lastFrame;
 
-	private String pendingFaceStatus = "";
-	private long pendingSince = 0;
+	public static final long FACE_STABLE_TIME_MS = 700; // tempo mínimo estável
 
-	private static final long FACE_STABLE_TIME_MS = 700; // tempo mínimo estável
+	/** Rosto e movimento seguem a mesma regra de estabilidade, cada um com seu estado */
+	private final StatusDebouncer faceDebouncer = new StatusDebouncer(FACE_STABLE_TIME_MS, FACE_SEND_INTERVAL_MS);
+	private final StatusDebouncer motionDebouncer = new StatusDebouncer(FACE_STABLE_TIME_MS, FACE_SEND_INTERVAL_MS);
 
-//    private final BackgroundSubtractorMOG2 motionDetector;
-//    private boolean motionDetected = false;
+	/**
+	 * Só estabilidade, sem intervalo mínimo: alimentam a linha do tempo, que
+	 * registra todo status estável desde o instante em que apareceu
+	 */
+	private final StatusDebouncer faceStability = new StatusDebouncer(FACE_STABLE_TIME_MS, 0);
+	private final StatusDebouncer motionStability = new StatusDebouncer(FACE_STABLE_TIME_MS, 0);
 
-//    private long lastFaceSentTime = 0;
-//   private static final long FACE_SEND_INTERVAL = 1000; // 1 segundo
+	public VisionMonitor(VisionContext context, VisionOutput output) {
+		this(context, output, new VideoCaptureFrameSource(CAMERA_INDEX));
+	}
 
-	public VisionMonitor(String student, String exam, String session, VisionOutput output) {
-		this.studentName = student;
-		this.examName = exam;
-		this.output = output;
+	public VisionMonitor(VisionContext context, VisionOutput output, FrameSource frameSource) {
+		this(context, output, frameSource, new FaceClassifier());
+	}
 
-		VisionContext.init(student, exam, session);
+	/**
+	 * @param faceClassifier classificador já carregado (permite carregar o modelo
+	 *                       em paralelo com as demais etapas da inicialização)
+	 */
+	public VisionMonitor(VisionContext context, VisionOutput output, FrameSource frameSource,
+			FaceClassifier faceClassifier) {
+		this.context = context;
+		this.output = output;
+		this.frameSource = frameSource;
 
-		this.eventSender = new VisionEventSender();
-		this.faceDetector = loadCascade("facedetector/lbpcascade_frontalface_improved.xml");
-		// this.motionDetector = Video.createBackgroundSubtractorMOG2();
+		this.eventSender = new VisionEventSender(context);
+		this.faceClassifier = faceClassifier;
+		this.motionDetector = new MotionDetector();
+		this.clipRecorder = ClipRecorder.fromSystemProperties();
+		this.timeline = TIMELINE_ENABLED ? new TimelineAggregator() : null;
 
-		//gui.setIdentity(student, exam);
+		output.setContext(context);
 		output.addLog("LBP Cascade carregado com sucesso");
-		output.addLog("Vision iniciado para " + student + " | " + exam);
-		FileLogger.logTxt("[VISION] Inicializado: " + student + " | " + exam + " | " + session);
-		FileLogger.logJson("vision", "INIT", 0);
+		output.addLog("Vision iniciado para " + context.student() + " | " + context.exam());
+		FileLogger.logTxt(context, "[VISION] Inicializado: " + context);
+		FileLogger.logJson(context, "vision", "INIT", 0);
 	}
 
 	/**
-	 * Carrega o classificador Haar/LBP a partir dos recursos do projeto.
+	 * Troca a identidade do monitor (ex: sessão alterada no servidor, ou
+	 * {@link VisionContext#UNKNOWN} quando ela foi encerrada). O resumo da linha
+	 * do tempo até aqui sai com a identidade anterior; os status em aberto
+	 * continuam no próximo resumo, já com a nova.
 	 */
-	private CascadeClassifier loadCascade(String path) {
-		try (InputStream is = getClass().getClassLoader().getResourceAsStream(path)) {
-			if (is == null)
-				throw new RuntimeException("Cascade não encontrado: " + path);
-
-			Path temp = Files.createTempFile("lbp-", ".xml");
-			Files.copy(is, temp, StandardCopyOption.REPLACE_EXISTING);
-
-			CascadeClassifier cc = new CascadeClassifier(temp.toString());
-			if (cc.empty())
-				throw new RuntimeException("Cascade inválido");
+	public void updateContext(VisionContext newContext) {
+		VisionContext previous = context;
+		if (previous.equals(newContext))
+			return;
+
+		if (timeline != null)
+			flushTimeline(false);
+
+		context = newContext;
+		eventSender.setContext(newContext);
+		output.setContext(newContext);
+
+		String event = VisionContext.UNKNOWN.equals(newContext) ? "SESSAO_ENCERRADA" : "SESSAO_ALTERADA";
+		eventSender.sendEventAsync("vision", event);
+		output.addLog("Sessão alterada: " + newContext);
+		FileLogger.logTxt(newContext, "[VISION] Sessão alterada (antes: " + previous + ")");
+		FileLogger.logJson(newContext, "vision", event, 0);
+	}
 
-			return cc;
-		} catch (Exception e) {
-			throw new RuntimeException(e);
-		}
+	/**
+	 * Registra uma ação para o primeiro frame monitorado (ex: medir o tempo de
+	 * inicialização). Deve ser chamado antes de {@link #start()}.
+	 */
+	public void setFirstFrameListener(Runnable listener) {
+		this.firstFrameListener = listener;
 	}
 
 	/**
@@ -110,14 +180,14 @@ public class VisionMonitor {
 	 * Loop principal de captura e processamento de visão. NÃO faz envio de rede.
 	 */
 	private void startVisionLoop() {
-		new Thread(() -> {
-			VideoCapture camera = new VideoCapture(CAMERA_INDEX);
+		visionThread = new Thread(() -> {
+			FrameSource camera = frameSource;
 
-			if (!camera.isOpened()) {
+			if (!camera.open()) {
 				output.setStatus("Sem Webcam");
 				eventSender.sendEventAsync("vision", "SEM_WEBCAM");
-				FileLogger.logTxt("[VISION] Webcam não disponível");
-				FileLogger.logJson("vision", "SEM_WEBCAM", 1);
+				FileLogger.logTxt(context, "[VISION] Webcam não disponível");
+				FileLogger.logJson(context, "vision", "SEM_WEBCAM", 1);
 				return;
 			}
 
@@ -127,41 +197,158 @@ public class VisionMonitor {
 			Mat resized = new Mat();
 			Mat gray = new Mat();
 
+			long lastCaptureNanos = 0;
+			long frameIndex = 0;
+			QualityGovernor.Level level = governor.level();
+
 			while (running) {
-				if (!camera.read(frame))
+				if (!camera.read(frame)) {
+					FRAME_READ_FAILURES.inc();
 					continue;
+				}
+
+				long start = System.nanoTime();
+				FRAMES_CAPTURED.inc();
+				if (lastCaptureNanos != 0)
+					FRAME_INTERVAL.record((start - lastCaptureNanos) / 1_000);
+				lastCaptureNanos = start;
 
-				Imgproc.resize(frame, resized, FRAME_SIZE);
+				Imgproc.resize(frame, resized, level.frameSize);
 				Imgproc.cvtColor(resized, gray, Imgproc.COLOR_BGR2GRAY);
 
-				detectFace(resized, gray);
-				// detectMotion(resized, fgMask);
-				// sendFrame(resized);
+				if (frameIndex++ % level.detectEvery == 0) {
+					long detectStart = System.nanoTime();
+					detectFace(resized, gray);
+					DETECT_LATENCY.recordSince(detectStart);
+				} else if (lastFace != null) {
+					Imgproc.rectangle(resized, lastFace, FACE_COLOR, 2);
+				}
+
+				long motionStart = System.nanoTime();
+				detectMotion(gray);
+				MOTION_LATENCY.recordSince(motionStart);
+
 				lastFrame = resized.clone(); // sempre sobrescreve
+				if (clipRecorder != null)
+					clipRecorder.offer(resized, System.currentTimeMillis());
 				output.updateFrame(resized);
 
-				sleep(33);
+				long elapsed = System.nanoTime() - start;
+				PROCESS_LATENCY.record(elapsed / 1_000);
+				governor.recordLoop(elapsed);
+
+				Runnable listener = firstFrameListener;
+				if (listener != null) {
+					firstFrameListener = null;
+					listener.run();
+				}
+
+				QualityGovernor.Level next = governor.update(System.currentTimeMillis());
+				if (next != null) {
+					onQualityChanged(level, next);
+					level = next;
+					lastFace = null; // coordenadas da resolução anterior
+				}
+
+				// Pausa fixa após o processamento (NORMAL: os 33 ms de sempre)
+				sleep(level.pauseMs);
 			}
 			camera.release();
+			motionDetector.release();
 			output.setStatus("Encerrado");
-		}, "VisionLoop").start();
+		}, "VisionLoop");
+		visionThread.start();
 	}
 
 	/**
-	 * Scheduler responsável por enviar frames em intervalo fixo.
+	 * Scheduler responsável por enviar frames no intervalo do nível de qualidade.
 	 */
 	private void startFrameScheduler() {
 		frameScheduler = Executors.newSingleThreadScheduledExecutor();
+		frameScheduler.execute(this::sendLatestFrame);
+
+		if (timeline != null) {
+			frameScheduler.scheduleAtFixedRate(() -> flushTimeline(false), TIMELINE_FLUSH_SEC, TIMELINE_FLUSH_SEC,
+					TimeUnit.SECONDS);
+		}
+	}
 
-		frameScheduler.scheduleAtFixedRate(() -> {
-			if (lastFrame == null)
+	/**
+	 * Envia o último frame e agenda o próximo envio com o intervalo do nível
+	 * atual (um intervalo fixo não acompanharia as mudanças de nível).
+	 */
+	private void sendLatestFrame() {
+		QualityGovernor.Level level = governor.level();
+		try {
+			Mat frame = lastFrame;
+			if (frame == null)
 				return;
 
-			String base64 = FrameEncoder.encodeToBase64(lastFrame);
-			eventSender.updateVisionFrame(studentName, examName, base64);
+			String base64 = FrameEncoder.encodeToBase64(frame, level.jpegQuality);
+			eventSender.updateVisionFrame(base64);
 			eventSender.flushLatestFrame();
+		} finally {
+			if (running) {
+				try {
+					frameScheduler.schedule(this::sendLatestFrame, level.uploadIntervalSec, TimeUnit.SECONDS);
+				} catch (RejectedExecutionException ignored) {
+					// stop() em andamento
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reporta a troca de nível de qualidade como evento.
+	 */
+	private void onQualityChanged(QualityGovernor.Level previous, QualityGovernor.Level next) {
+		String load = governor.describeLoad();
+
+		eventSender.sendEventAsync("vision", "QOS_" + next.name());
+		output.addLog("Qualidade: " + next + " (" + load + ")");
+		FileLogger.logTxt(context, "[QOS] " + previous + " -> " + next + " (pausa " + next.pauseMs + " ms, "
+				+ (int) next.frameSize.width + "x" + (int) next.frameSize.height + ", rosto 1/" + next.detectEvery
+				+ ", upload " + next.uploadIntervalSec + "s q" + next.jpegQuality + "; " + load + ")");
+		FileLogger.logJson(context, "vision", "QOS_" + next.name(), 0);
+	}
+
+	/**
+	 * Envia e registra o resumo da linha do tempo desde o último flush.
+	 */
+	private void flushTimeline(boolean last) {
+		VisionContext ctx = context;
+		int transitions = timeline.pendingTransitions();
+		String json = timeline.flush(System.currentTimeMillis(), ctx.student(), ctx.exam(), ctx.session(), last);
+		if (json == null)
+			return;
+
+		eventSender.sendJsonAsync(json);
+		TIMELINE_SUMMARIES.inc();
+
+		FileLogger.logTimeline(json);
+		FileLogger.logTxt(ctx, "[TIMELINE] Resumo enviado (" + transitions + " transições)");
+	}
 
-		}, 0, FRAME_SEND_INTERVAL_SEC, TimeUnit.SECONDS);
+	/**
+	 * Registra na linha do tempo (se habilitada) todo status estável, com o
+	 * instante em que apareceu. Independe do intervalo mínimo dos eventos.
+	 */
+	private void recordTimeline(StatusDebouncer stability, String channel, String status, long now) {
+		if (timeline != null && stability.update(status, now))
+			timeline.record(channel, status, stability.stableSince());
+	}
+
+	/**
+	 * Publica um status estabilizado: evento imediato + TXT + JSON. Com a
+	 * agregação habilitada, a linha do tempo substitui esses eventos.
+	 */
+	private void publishStatus(String channel, String status) {
+		if (timeline != null)
+			return;
+
+		eventSender.sendEventAsync("vision", status);
+		FileLogger.logTxt(context, "[" + channel + "] " + status);
+		FileLogger.logJson(context, channel, status, 2);
 	}
 
 	/**
@@ -169,85 +356,93 @@ public class VisionMonitor {
 	 * quando: - o status muda - ou o intervalo mínimo expira
 	 */
 	private void detectFace(Mat frame, Mat gray) {
-		MatOfRect faces = new MatOfRect();
-		faceDetector.detectMultiScale(gray, faces, 1.1, 3, 0, new Size(80, 80), new Size());
-
-		Rect[] detected = faces.toArray();
-		String status;
+		FaceClassifier.Result result = faceClassifier.classify(gray);
+		String status = result.status;
 		Color color;
 
-		if (detected.length == 0) {
-			status = "SEM_ROSTO";
+		if (!result.hasFace()) {
 			color = Color.RED;
 		} else {
-			Rect face = detected[0];
-			int cx = face.x + face.width / 2;
-			int cy = face.y + face.height / 2;
-
-			double w = frame.width();
-			double h = frame.height();
-
-			if (cx < w * 0.30)
-				status = "ROSTO_ESQUERDA";
-			else if (cx > w * 0.70)
-				status = "ROSTO_DIREITA";
-			else if (cy < h * 0.30)
-				status = "ROSTO_CIMA";
-			else if (cy > h * 0.70)
-				status = "ROSTO_BAIXO";
-			else
-				status = "ROSTO_CENTRO";
-
 			color = new Color(0, 150, 0);
-			Imgproc.rectangle(frame, face, new Scalar(color.getBlue(), color.getGreen(), color.getRed()), 2);
+			Imgproc.rectangle(frame, result.face, FACE_COLOR, 2);
 		}
+		lastFace = result.face;
 
 		long now = System.currentTimeMillis();
+		recordTimeline(faceStability, "Rosto", status, now);
+		if (!faceDebouncer.update(status, now))
+			return;
 
-		/*
-		 * Se o status mudou, começamos a contar o tempo de estabilidade
-		 */
-		if (!status.equals(pendingFaceStatus)) {
-		    pendingFaceStatus = status;
-		    pendingSince = now;
-		    return;
-		}
+		if (clipRecorder != null && INCIDENT_STATUSES.contains(status))
+			clipRecorder.trigger(status, now, context);
 
-		/*
-		 * Se o status ainda não ficou estável tempo suficiente, ignoramos
-		 */
-		if (now - pendingSince < FACE_STABLE_TIME_MS) {
-		    return;
-		}
+		publishStatus("Rosto", status);
+		FACE_EVENTS.inc();
 
+		output.updateFaceStatus(status, color);
+		output.addLog("[" + context.student() + "] Rosto: " + status);
+	}
 
-		if (!status.equals(lastFaceStatus) && now - lastFaceSentTime >= FACE_SEND_INTERVAL_MS) {
-			eventSender.sendEventAsync("vision", status);
+	/**
+	 * Detecção de movimento sobre o mesmo quadro cinza usado pelo rosto, com a
+	 * mesma regra de estabilidade.
+	 */
+	private void detectMotion(Mat gray) {
+		String status = motionDetector.detect(gray);
+
+		long now = System.currentTimeMillis();
+		recordTimeline(motionStability, "Movimento", status, now);
+		if (!motionDebouncer.update(status, now))
+			return;
 
-			output.updateFaceStatus(status, color);
-			output.addLog("[" + studentName + "] Rosto: " + status);
+		Color color = MotionDetector.MOVIMENTO.equals(status) ? Color.ORANGE : new Color(0, 150, 0);
 
-			FileLogger.logTxt("[Rosto] " + status);
-			FileLogger.logJson("Rosto", status, 2);
+		publishStatus("Movimento", status);
+		MOTION_EVENTS.inc();
 
-			lastFaceStatus = status;
-			lastFaceSentTime = now;
-		}
+		output.updateMotionStatus(status, color);
+		output.addLog("[" + context.student() + "] Movimento: " + status);
 	}
 
 	public void stop() {
 		running = false;
+		joinVisionLoop();
 
 		if (frameScheduler != null) {
 			frameScheduler.shutdownNow();
 		}
 
+		if (clipRecorder != null)
+			clipRecorder.close();
+
+		if (timeline != null)
+			flushTimeline(true);
+
 		eventSender.sendEventAsync("vision", "VISION_ENCERRADO");
-		FileLogger.logTxt("[VISION] Encerrado");
-		FileLogger.logJson("vision", "STOPPED", 0);
+		FileLogger.logTxt(context, "[VISION] Encerrado");
+		FileLogger.logJson(context, "vision", "STOPPED", 0);
 		eventSender.shutdown();
 	}
 
+	/**
+	 * Espera o loop terminar a iteração corrente, para que nenhum status seja
+	 * registrado depois do último resumo. Limitado: a leitura da câmera pode
+	 * travar, e stop() pode vir de um hook enquanto o próprio loop chama exit.
+	 */
+	private void joinVisionLoop() {
+		Thread loop = visionThread;
+		if (loop == null || loop == Thread.currentThread())
+			return;
+
+		try {
+			loop.join(LOOP_JOIN_TIMEOUT_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (loop.isAlive())
+			System.err.println("[ArgusVision] Loop de visão não encerrou em " + LOOP_JOIN_TIMEOUT_MS + " ms");
+	}
+
 	private void sleep(long ms) {
 		try {
 			Thread.sleep(ms);
@@ -1,12 +1,33 @@
 package com.argusvision.camera;
 
 import java.awt.Color;
+import java.util.List;
 
 import org.opencv.core.Mat;
 
+import com.argusvision.util.VisionContext;
+
 public interface VisionOutput {
 	void updateFrame(Mat frame);
     void updateFaceStatus(String status, Color color);
+    void updateMotionStatus(String status, Color color);
     void setStatus(String status);
     void addLog(String message);
+
+    /**
+     * Registra várias mensagens de uma vez.
+     * Implementações podem sobrescrever para agrupar a escrita (um único
+     * invokeLater, uma única abertura de arquivo, etc).
+     */
+    default void addLogs(List<String> messages) {
+        for (String message : messages) {
+            addLog(message);
+        }
+    }
+
+    /**
+     * Identidade do monitor (no início e quando a sessão muda).
+     */
+    default void setContext(VisionContext context) {
+    }
 }
@@ -0,0 +1,46 @@
+package com.argusvision.kernels;
+
+/**
+ * Parte comum do average hash: divisão em blocos e geração dos bits a partir
+ * das somas de cada bloco.
+ */
+final class AverageHash {
+
+	private static final int SIZE = GrayKernels.HASH_SIZE;
+
+	private AverageHash() {
+	}
+
+	/** Primeira coluna (ou linha) do bloco {@code block} de um eixo com {@code size} pixels */
+	static int blockStart(int block, int size) {
+		return block * size / SIZE;
+	}
+
+	/**
+	 * @param sums   soma dos pixels de cada bloco, em ordem de linha (64 posições)
+	 * @param width  largura do quadro
+	 * @param height altura do quadro
+	 */
+	static long fromBlockSums(long[] sums, int width, int height) {
+		double[] means = new double[SIZE * SIZE];
+		double total = 0;
+
+		for (int by = 0; by < SIZE; by++) {
+			int rows = blockStart(by + 1, height) - blockStart(by, height);
+			for (int bx = 0; bx < SIZE; bx++) {
+				int cols = blockStart(bx + 1, width) - blockStart(bx, width);
+				int i = by * SIZE + bx;
+				means[i] = rows * cols == 0 ? 0 : (double) sums[i] / (rows * cols);
+				total += means[i];
+			}
+		}
+
+		double mean = total / means.length;
+		long hash = 0;
+		for (int i = 0; i < means.length; i++) {
+			if (means[i] > mean)
+				hash |= 1L << i;
+		}
+		return hash;
+	}
+}
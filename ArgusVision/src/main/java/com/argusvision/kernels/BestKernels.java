@@ -0,0 +1,27 @@
+package com.argusvision.kernels;
+
+/**
+ * Escolha única (por JVM) da implementação de {@link GrayKernels#best()}.
+ */
+final class BestKernels {
+
+	static final GrayKernels INSTANCE = select();
+
+	private BestKernels() {
+	}
+
+	private static GrayKernels select() {
+		if (!Boolean.parseBoolean(System.getProperty("argusvision.kernels.vector", "true")))
+			return GrayKernels.scalar();
+
+		try {
+			return GrayKernels.vector();
+		} catch (UnsupportedOperationException e) {
+			return GrayKernels.scalar();
+		} catch (IllegalStateException e) {
+			// Módulo presente mas inutilizável: é um bug, não uma configuração
+			System.err.println("[ArgusVision] " + e.getMessage() + ", usando escalar: " + e.getCause());
+			return GrayKernels.scalar();
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.argusvision.kernels;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+/**
+ * Cópia reutilizável de um quadro cinza (CV_8UC1) em {@code byte[]}.
+ *
+ * {@link #load(Mat)} faz uma única chamada JNI por frame; o array só é
+ * realocado quando a resolução muda.
+ *
+ * Não é thread-safe: uma instância por loop/thread.
+ */
+public final class GrayFrame {
+
+	private byte[] data = new byte[0];
+	private int width;
+	private int height;
+
+	/**
+	 * Copia os pixels de {@code gray} (contínuo, 8 bits, 1 canal).
+	 */
+	public GrayFrame load(Mat gray) {
+		if (gray.type() != CvType.CV_8UC1)
+			throw new IllegalArgumentException("Esperado quadro cinza CV_8UC1, recebido tipo " + gray.type());
+
+		width = gray.cols();
+		height = gray.rows();
+
+		int length = width * height;
+		if (data.length != length)
+			data = new byte[length];
+
+		gray.get(0, 0, data);
+		return this;
+	}
+
+	public byte[] data() {
+		return data;
+	}
+
+	public int width() {
+		return width;
+	}
+
+	public int height() {
+		return height;
+	}
+
+	public int length() {
+		return width * height;
+	}
+}
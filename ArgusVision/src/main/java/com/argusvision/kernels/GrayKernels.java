@@ -0,0 +1,89 @@
+package com.argusvision.kernels;
+
+/**
+ * Estatísticas por frame sobre quadros cinza em {@code byte[]} (pixels sem
+ * sinal, 0..255), sem cruzar o JNI nem criar Mats temporários.
+ *
+ * O quadro é copiado do Mat uma única vez por {@link GrayFrame}; depois disso
+ * todas as operações trabalham no array. Duas implementações:
+ * - {@link #vector()}: Vector API (jdk.incubator.vector), exige
+ *   {@code --add-modules jdk.incubator.vector} na JVM
+ * - {@link #scalar()}: laços simples, sempre disponível
+ *
+ * {@link #best()} escolhe a vetorizada quando o módulo está presente (pode
+ * ser desligada com -Dargusvision.kernels.vector=false).
+ *
+ * Implementações são stateless e thread-safe.
+ */
+public interface GrayKernels {
+
+	/** Lado da grade do average hash (8x8 = 64 bits) */
+	int HASH_SIZE = 8;
+
+	/**
+	 * {@code out[i] = |a[i] - b[i]|} para i em [0, length).
+	 */
+	void absDiff(byte[] a, byte[] b, byte[] out, int length);
+
+	/**
+	 * Quantos pixels têm {@code |a[i] - b[i]| > threshold} (pontuação de
+	 * mudança/movimento sem materializar a diferença). Com {@code threshold}
+	 * negativo todos os pixels contam; a partir de 255, nenhum.
+	 */
+	int countDiffAbove(byte[] a, byte[] b, int length, int threshold);
+
+	/**
+	 * Average hash: o quadro é reduzido para 8x8 por média de blocos e cada bit
+	 * indica se o bloco está acima da média geral. Quadros parecidos têm hashes
+	 * com pequena {@link #hammingDistance distância de Hamming}.
+	 */
+	long averageHash(byte[] gray, int width, int height);
+
+	/**
+	 * Histograma de 256 posições (zerado antes da contagem).
+	 */
+	void histogram(byte[] gray, int length, int[] histogram);
+
+	/**
+	 * Média e variância populacional: {@code out[0] = média}, {@code out[1] = variância}.
+	 */
+	void meanVariance(byte[] gray, int length, double[] out);
+
+	String name();
+
+	static int hammingDistance(long hashA, long hashB) {
+		return Long.bitCount(hashA ^ hashB);
+	}
+
+	static GrayKernels scalar() {
+		return ScalarGrayKernels.INSTANCE;
+	}
+
+	/**
+	 * Implementação vetorizada.
+	 *
+	 * @throws UnsupportedOperationException se o módulo jdk.incubator.vector não
+	 *                                       foi adicionado à JVM
+	 * @throws IllegalStateException         se o módulo está presente mas a
+	 *                                       implementação falhou ao inicializar
+	 *                                       (ex: forma de vetor inválida nesta CPU)
+	 */
+	static GrayKernels vector() {
+		if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+			throw new UnsupportedOperationException("Vector API indisponível (use --add-modules jdk.incubator.vector)");
+
+		try {
+			return (GrayKernels) Class.forName("com.argusvision.kernels.VectorGrayKernels")
+					.getField("INSTANCE").get(null);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			throw new IllegalStateException("Falha ao inicializar os kernels vetorizados", e);
+		}
+	}
+
+	/**
+	 * Vetorizada se disponível, senão escalar.
+	 */
+	static GrayKernels best() {
+		return BestKernels.INSTANCE;
+	}
+}
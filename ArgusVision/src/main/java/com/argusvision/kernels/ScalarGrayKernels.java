@@ -0,0 +1,113 @@
+package com.argusvision.kernels;
+
+/**
+ * Implementação escalar (referência e fallback sem a Vector API).
+ */
+final class ScalarGrayKernels implements GrayKernels {
+
+	static final ScalarGrayKernels INSTANCE = new ScalarGrayKernels();
+
+	private ScalarGrayKernels() {
+	}
+
+	@Override
+	public void absDiff(byte[] a, byte[] b, byte[] out, int length) {
+		for (int i = 0; i < length; i++)
+			out[i] = (byte) Math.abs((a[i] & 0xFF) - (b[i] & 0xFF));
+	}
+
+	@Override
+	public int countDiffAbove(byte[] a, byte[] b, int length, int threshold) {
+		int count = 0;
+		for (int i = 0; i < length; i++) {
+			if (Math.abs((a[i] & 0xFF) - (b[i] & 0xFF)) > threshold)
+				count++;
+		}
+		return count;
+	}
+
+	@Override
+	public long averageHash(byte[] gray, int width, int height) {
+		long[] sums = new long[HASH_SIZE * HASH_SIZE];
+
+		// Linhas agrupadas pelo mesmo blockStart das colunas (e de fromBlockSums)
+		for (int by = 0; by < HASH_SIZE; by++) {
+			int rowBlock = by * HASH_SIZE;
+			int last = AverageHash.blockStart(by + 1, height);
+			for (int y = AverageHash.blockStart(by, height); y < last; y++) {
+				int row = y * width;
+				for (int bx = 0; bx < HASH_SIZE; bx++)
+					sums[rowBlock + bx] += sum(gray, row + AverageHash.blockStart(bx, width),
+							row + AverageHash.blockStart(bx + 1, width));
+			}
+		}
+		return AverageHash.fromBlockSums(sums, width, height);
+	}
+
+	private static long sum(byte[] gray, int from, int to) {
+		long sum = 0;
+		for (int i = from; i < to; i++)
+			sum += gray[i] & 0xFF;
+		return sum;
+	}
+
+	@Override
+	public void histogram(byte[] gray, int length, int[] histogram) {
+		histogram(gray, 0, length, histogram);
+	}
+
+	/**
+	 * Quatro histogramas parciais intercalados: pixels vizinhos costumam ter o
+	 * mesmo valor e incrementos seguidos na mesma posição serializam o laço.
+	 * A contagem por espalhamento não se beneficia de SIMD, então a
+	 * implementação vetorizada também usa este método.
+	 */
+	static void histogram(byte[] gray, int from, int to, int[] histogram) {
+		int[] h0 = new int[256];
+		int[] h1 = new int[256];
+		int[] h2 = new int[256];
+		int[] h3 = new int[256];
+
+		int i = from;
+		for (; i + 3 < to; i += 4) {
+			h0[gray[i] & 0xFF]++;
+			h1[gray[i + 1] & 0xFF]++;
+			h2[gray[i + 2] & 0xFF]++;
+			h3[gray[i + 3] & 0xFF]++;
+		}
+		for (; i < to; i++)
+			h0[gray[i] & 0xFF]++;
+
+		for (int v = 0; v < 256; v++)
+			histogram[v] = h0[v] + h1[v] + h2[v] + h3[v];
+	}
+
+	@Override
+	public void meanVariance(byte[] gray, int length, double[] out) {
+		long sum = 0;
+		long sumSq = 0;
+		for (int i = 0; i < length; i++) {
+			int v = gray[i] & 0xFF;
+			sum += v;
+			sumSq += v * v;
+		}
+		meanVariance(sum, sumSq, length, out);
+	}
+
+	static void meanVariance(long sum, long sumSq, int length, double[] out) {
+		if (length == 0) {
+			out[0] = 0;
+			out[1] = 0;
+			return;
+		}
+
+		double mean = (double) sum / length;
+		out[0] = mean;
+		out[1] = Math.max(0, (double) sumSq / length - mean * mean);
+	}
+
+	@Override
+	public String name() {
+		return "scalar";
+	}
+}
@@ -0,0 +1,201 @@
+package com.argusvision.kernels;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementação com a Vector API (incubadora). Só é carregada por
+ * {@link GrayKernels#vector()}, para que a ausência do módulo caia no
+ * fallback escalar em vez de falhar.
+ *
+ * Pixels são sem sinal e a API só tem operações com sinal. Para comparar,
+ * invertemos o bit mais alto ({@code x ^ 0x80}), que leva a ordem sem sinal
+ * para a ordem com sinal; a diferença max - min continua correta em 8 bits.
+ * Somas são feitas em lanes int ({@code B2I}): cada leitura de bytes (no
+ * mínimo 64 bits, a menor forma válida) vira {@code PARTS} vetores int da
+ * largura preferida.
+ */
+final class VectorGrayKernels implements GrayKernels {
+
+	public static final VectorGrayKernels INSTANCE = new VectorGrayKernels();
+
+	private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+	/** Ints na largura preferida */
+	static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+	/**
+	 * Bytes lidos por iteração: um byte por lane int, mas nunca menos de 64
+	 * bits (com ints de 128 bits, 4 bytes = 32 bits não é uma forma válida)
+	 */
+	static final VectorSpecies<Byte> NARROW_BYTES =
+			VectorSpecies.of(byte.class, VectorShape.forBitSize(Math.max(64, INTS.length() * Byte.SIZE)));
+
+	/** Vetores int por leitura de {@link #NARROW_BYTES} (partes do {@code convertShape}) */
+	static final int PARTS = NARROW_BYTES.length() / INTS.length();
+
+	/**
+	 * Iterações antes de transferir os acumuladores int para long: cada lane
+	 * soma no máximo PARTS * 255² = PARTS * 65025 por iteração, e
+	 * 2^31 / 65025 > 32768.
+	 */
+	private static final int FLUSH_EVERY = 32768 / PARTS;
+
+	private static final byte SIGN = (byte) 0x80;
+
+	private VectorGrayKernels() {
+	}
+
+	@Override
+	public void absDiff(byte[] a, byte[] b, byte[] out, int length) {
+		int i = 0;
+		int bound = BYTES.loopBound(length);
+		for (; i < bound; i += BYTES.length()) {
+			absDiff(ByteVector.fromArray(BYTES, a, i), ByteVector.fromArray(BYTES, b, i)).intoArray(out, i);
+		}
+		for (; i < length; i++)
+			out[i] = (byte) Math.abs((a[i] & 0xFF) - (b[i] & 0xFF));
+	}
+
+	@Override
+	public int countDiffAbove(byte[] a, byte[] b, int length, int threshold) {
+		if (threshold >= 255)
+			return 0;
+		// Toda diferença (>= 0) é maior que um limite negativo; a comparação com sinal abaixo não cobre esse caso
+		if (threshold < 0)
+			return length;
+
+		// diff > threshold (sem sinal)  <=>  (diff ^ 0x80) > (threshold ^ 0x80) (com sinal)
+		byte limit = (byte) (threshold ^ 0x80);
+
+		int count = 0;
+		int i = 0;
+		int bound = BYTES.loopBound(length);
+		for (; i < bound; i += BYTES.length()) {
+			ByteVector diff = absDiff(ByteVector.fromArray(BYTES, a, i), ByteVector.fromArray(BYTES, b, i));
+			VectorMask<Byte> above = diff.lanewise(VectorOperators.XOR, SIGN).compare(VectorOperators.GT, limit);
+			count += above.trueCount();
+		}
+		for (; i < length; i++) {
+			if (Math.abs((a[i] & 0xFF) - (b[i] & 0xFF)) > threshold)
+				count++;
+		}
+		return count;
+	}
+
+	private static ByteVector absDiff(ByteVector a, ByteVector b) {
+		ByteVector sa = a.lanewise(VectorOperators.XOR, SIGN);
+		ByteVector sb = b.lanewise(VectorOperators.XOR, SIGN);
+		return sa.max(sb).sub(sa.min(sb));
+	}
+
+	@Override
+	public long averageHash(byte[] gray, int width, int height) {
+		long[] sums = new long[HASH_SIZE * HASH_SIZE];
+
+		// Linhas agrupadas pelo mesmo blockStart das colunas (e de fromBlockSums)
+		for (int by = 0; by < HASH_SIZE; by++) {
+			int rowBlock = by * HASH_SIZE;
+			int last = AverageHash.blockStart(by + 1, height);
+			for (int y = AverageHash.blockStart(by, height); y < last; y++) {
+				int row = y * width;
+				for (int bx = 0; bx < HASH_SIZE; bx++)
+					sums[rowBlock + bx] += sum(gray, row + AverageHash.blockStart(bx, width),
+							row + AverageHash.blockStart(bx + 1, width));
+			}
+		}
+		return AverageHash.fromBlockSums(sums, width, height);
+	}
+
+	/**
+	 * Soma de um trecho (um bloco de uma linha; no máximo width/8 pixels, sem
+	 * risco de estouro nos lanes int).
+	 */
+	private static long sum(byte[] gray, int from, int to) {
+		IntVector acc = IntVector.zero(INTS);
+
+		int i = from;
+		int bound = from + NARROW_BYTES.loopBound(to - from);
+		for (; i < bound; i += NARROW_BYTES.length()) {
+			ByteVector bytes = ByteVector.fromArray(NARROW_BYTES, gray, i);
+			for (int part = 0; part < PARTS; part++)
+				acc = acc.add(widen(bytes, part));
+		}
+
+		long sum = acc.reduceLanes(VectorOperators.ADD);
+		for (; i < to; i++)
+			sum += gray[i] & 0xFF;
+		return sum;
+	}
+
+	@Override
+	public void histogram(byte[] gray, int length, int[] histogram) {
+		ScalarGrayKernels.histogram(gray, 0, length, histogram);
+	}
+
+	@Override
+	public void meanVariance(byte[] gray, int length, double[] out) {
+		long sum = 0;
+		long sumSq = 0;
+
+		IntVector acc = IntVector.zero(INTS);
+		IntVector accSq = IntVector.zero(INTS);
+		int iterations = 0;
+
+		int i = 0;
+		int bound = NARROW_BYTES.loopBound(length);
+		for (; i < bound; i += NARROW_BYTES.length()) {
+			ByteVector bytes = ByteVector.fromArray(NARROW_BYTES, gray, i);
+			for (int part = 0; part < PARTS; part++) {
+				IntVector v = widen(bytes, part);
+				acc = acc.add(v);
+				accSq = accSq.add(v.mul(v));
+			}
+
+			if (++iterations == FLUSH_EVERY) {
+				sum += sumLanes(acc);
+				sumSq += sumLanes(accSq);
+				acc = IntVector.zero(INTS);
+				accSq = IntVector.zero(INTS);
+				iterations = 0;
+			}
+		}
+		sum += sumLanes(acc);
+		sumSq += sumLanes(accSq);
+
+		for (; i < length; i++) {
+			int v = gray[i] & 0xFF;
+			sum += v;
+			sumSq += v * v;
+		}
+		ScalarGrayKernels.meanVariance(sum, sumSq, length, out);
+	}
+
+	/**
+	 * Soma dos lanes em long (a redução em int estouraria com os acumuladores cheios).
+	 */
+	private static long sumLanes(IntVector v) {
+		long total = 0;
+		for (int lane : v.toArray())
+			total += lane;
+		return total;
+	}
+
+	/**
+	 * Parte {@code part} dos bytes (lanes {@code part * INTS.length()} em diante)
+	 * como ints sem sinal.
+	 */
+	private static IntVector widen(ByteVector bytes, int part) {
+		return (IntVector) bytes.convertShape(VectorOperators.B2I, INTS, part)
+				.lanewise(VectorOperators.AND, 0xFF);
+	}
+
+	@Override
+	public String name() {
+		return "vector";
+	}
+}
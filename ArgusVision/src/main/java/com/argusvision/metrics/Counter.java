@@ -0,0 +1,24 @@
+package com.argusvision.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador monotônico. Usa LongAdder para que várias threads possam
+ * incrementar sem disputar a mesma linha de cache.
+ */
+public final class Counter {
+
+	private final LongAdder value = new LongAdder();
+
+	public void inc() {
+		value.increment();
+	}
+
+	public void add(long n) {
+		value.add(n);
+	}
+
+	public long get() {
+		return value.sum();
+	}
+}
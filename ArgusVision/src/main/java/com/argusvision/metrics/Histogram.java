@@ -0,0 +1,100 @@
+package com.argusvision.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma log-linear no estilo HDR: cada potência de 2 é dividida em 16
+ * sub-buckets, o que mantém o erro relativo abaixo de ~6% em toda a faixa
+ * (de 0 até Long.MAX_VALUE) com um array fixo e sem alocação por registro.
+ *
+ * Latências são registradas em microssegundos.
+ */
+public final class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	public void record(long value) {
+		if (value < 0)
+			value = 0;
+
+		buckets.incrementAndGet(indexOf(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Registra o tempo decorrido desde {@code startNanos} (System.nanoTime) em µs.
+	 */
+	public void recordSince(long startNanos) {
+		record((System.nanoTime() - startNanos) / 1_000);
+	}
+
+	public long count() {
+		return count.sum();
+	}
+
+	public long sum() {
+		return sum.sum();
+	}
+
+	public long max() {
+		return max.get();
+	}
+
+	public double mean() {
+		long n = count();
+		return n == 0 ? 0 : (double) sum() / n;
+	}
+
+	/**
+	 * Valor abaixo do qual está a fração {@code quantile} (0..1) das amostras.
+	 * Retorna o limite superior do bucket, limitado ao máximo observado.
+	 */
+	public long percentile(double quantile) {
+		long total = count();
+		if (total == 0)
+			return 0;
+
+		long target = (long) Math.ceil(quantile * total);
+		if (target < 1)
+			target = 1;
+
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets.get(i);
+			if (seen >= target)
+				return Math.min(upperBoundOf(i), max());
+		}
+		return max();
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+
+		int msb = 63 - Long.numberOfLeadingZeros(value);
+		int shift = msb - SUB_BUCKET_BITS;
+		int sub = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+		return (shift + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long upperBoundOf(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+
+		int shift = index / SUB_BUCKETS - 1;
+		long sub = index % SUB_BUCKETS;
+		long lower = (SUB_BUCKETS + sub) << shift;
+		return lower + (1L << shift) - 1;
+	}
+}
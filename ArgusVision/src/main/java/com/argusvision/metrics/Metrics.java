@@ -0,0 +1,133 @@
+package com.argusvision.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registro global de métricas do agente de visão.
+ *
+ * Os pontos instrumentados obtêm a métrica uma única vez (campo static final)
+ * e apenas incrementam/registram no caminho quente; a leitura e formatação
+ * acontecem só quando alguém consulta o endpoint ou o snapshot.
+ *
+ * Latências são em microssegundos (sufixo _us), tamanhos em bytes.
+ */
+public final class Metrics {
+
+	private static final String PREFIX = "argusvision_";
+
+	private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+	private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+	private static final Map<String, LongSupplier> GAUGES = new ConcurrentSkipListMap<>();
+
+	private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+	private Metrics() {
+	}
+
+	public static Counter counter(String name) {
+		return COUNTERS.computeIfAbsent(name, n -> new Counter());
+	}
+
+	public static Histogram histogram(String name) {
+		return HISTOGRAMS.computeIfAbsent(name, n -> new Histogram());
+	}
+
+	/**
+	 * Registra (ou substitui) um gauge lido sob demanda.
+	 */
+	public static void gauge(String name, LongSupplier supplier) {
+		GAUGES.put(name, supplier);
+	}
+
+	/**
+	 * Formato texto do Prometheus (histogramas expostos como summary, com o
+	 * máximo em um gauge {@code <nome>_max} à parte).
+	 */
+	public static String toPrometheus() {
+		StringBuilder sb = new StringBuilder(4096);
+
+		COUNTERS.forEach((name, c) -> {
+			sb.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+			sb.append(PREFIX).append(name).append(' ').append(c.get()).append('\n');
+		});
+
+		GAUGES.forEach((name, g) -> {
+			sb.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+			sb.append(PREFIX).append(name).append(' ').append(readGauge(g)).append('\n');
+		});
+
+		HISTOGRAMS.forEach((name, h) -> {
+			String full = PREFIX + name;
+			sb.append("# TYPE ").append(full).append(" summary\n");
+			for (double q : QUANTILES) {
+				sb.append(full).append("{quantile=\"").append(q).append("\"} ")
+						.append(h.percentile(q)).append('\n');
+			}
+			sb.append(full).append("_sum ").append(h.sum()).append('\n');
+			sb.append(full).append("_count ").append(h.count()).append('\n');
+
+			// Summary não admite o sufixo _max: o máximo é uma família própria
+			sb.append("# TYPE ").append(full).append("_max gauge\n");
+			sb.append(full).append("_max ").append(h.max()).append('\n');
+		});
+
+		return sb.toString();
+	}
+
+	/**
+	 * Snapshot em JSON de todas as métricas.
+	 */
+	public static String toJson() {
+		StringBuilder sb = new StringBuilder(4096);
+		sb.append("{\"timestamp\":").append(System.currentTimeMillis());
+
+		sb.append(",\"counters\":{");
+		appendEntries(sb, COUNTERS, Counter::get);
+		sb.append("},\"gauges\":{");
+		appendEntries(sb, GAUGES, Metrics::readGauge);
+		sb.append("},\"histograms\":{");
+
+		boolean first = true;
+		for (Map.Entry<String, Histogram> e : HISTOGRAMS.entrySet()) {
+			Histogram h = e.getValue();
+			if (!first)
+				sb.append(',');
+			first = false;
+
+			sb.append('"').append(e.getKey()).append("\":{")
+					.append("\"count\":").append(h.count())
+					.append(",\"mean\":").append(String.format(Locale.ROOT, "%.1f", h.mean()))
+					.append(",\"p50\":").append(h.percentile(0.5))
+					.append(",\"p90\":").append(h.percentile(0.9))
+					.append(",\"p99\":").append(h.percentile(0.99))
+					.append(",\"p999\":").append(h.percentile(0.999))
+					.append(",\"max\":").append(h.max())
+					.append('}');
+		}
+
+		sb.append("}}");
+		return sb.toString();
+	}
+
+	private static <T> void appendEntries(StringBuilder sb, Map<String, T> map, ToLongFunction<T> reader) {
+		boolean first = true;
+		for (Map.Entry<String, T> e : map.entrySet()) {
+			if (!first)
+				sb.append(',');
+			first = false;
+			sb.append('"').append(e.getKey()).append("\":").append(reader.applyAsLong(e.getValue()));
+		}
+	}
+
+	private static long readGauge(LongSupplier gauge) {
+		try {
+			return gauge.getAsLong();
+		} catch (RuntimeException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.argusvision.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Exposição local das métricas. Ambos os modos são opcionais e controlados
+ * por system properties:
+ *
+ * - argusvision.metrics.port: sobe um endpoint HTTP em 127.0.0.1 com
+ *   /metrics (texto Prometheus) e /metrics.json
+ * - argusvision.metrics.snapshotSec: grava periodicamente
+ *   argusvision_metrics.json no diretório de logs
+ */
+public final class MetricsServer {
+
+	public static final String PORT_PROPERTY = "argusvision.metrics.port";
+	public static final String SNAPSHOT_PROPERTY = "argusvision.metrics.snapshotSec";
+
+	private static final String SNAPSHOT_FILE_NAME = "argusvision_metrics.json";
+
+	private static HttpServer server;
+	private static ScheduledExecutorService snapshotScheduler;
+
+	private MetricsServer() {
+	}
+
+	/**
+	 * Inicia o endpoint e/ou os snapshots conforme as system properties.
+	 * Sem nenhuma delas definida, não faz nada.
+	 */
+	public static synchronized void startFromSystemProperties(String logDir) {
+		Integer port = Integer.getInteger(PORT_PROPERTY);
+		if (port != null && server == null) {
+			try {
+				startHttp(port);
+				System.out.println("[ArgusVision] Métricas em http://127.0.0.1:" + port + "/metrics");
+			} catch (IOException e) {
+				System.err.println("[ArgusVision] Não foi possível abrir endpoint de métricas: " + e.getMessage());
+			}
+		}
+
+		Integer snapshotSec = Integer.getInteger(SNAPSHOT_PROPERTY);
+		if (snapshotSec != null && snapshotSec > 0 && snapshotScheduler == null) {
+			startSnapshots(new File(logDir, SNAPSHOT_FILE_NAME).toPath(), snapshotSec);
+		}
+	}
+
+	private static void startHttp(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/metrics", exchange ->
+				respond(exchange, Metrics.toPrometheus(), "text/plain; version=0.0.4"));
+		server.createContext("/metrics.json", exchange ->
+				respond(exchange, Metrics.toJson(), "application/json"));
+		server.setExecutor(Executors.newSingleThreadExecutor(r -> daemon(r, "Vision-Metrics-Http")));
+		server.start();
+	}
+
+	private static void startSnapshots(Path target, long periodSec) {
+		snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "Vision-Metrics-Snapshot"));
+		snapshotScheduler.scheduleAtFixedRate(() -> {
+			try {
+				// Escreve em arquivo temporário e troca, para leitores nunca verem JSON parcial
+				Path tmp = target.resolveSibling(SNAPSHOT_FILE_NAME + ".tmp");
+				Files.write(tmp, Metrics.toJson().getBytes(StandardCharsets.UTF_8));
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				System.err.println("[ArgusVision] Erro ao gravar snapshot de métricas: " + e.getMessage());
+			}
+		}, periodSec, periodSec, TimeUnit.SECONDS);
+	}
+
+	private static void respond(HttpExchange exchange, String body, String contentType) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(bytes);
+		}
+	}
+
+	private static Thread daemon(Runnable r, String name) {
+		Thread t = new Thread(r, name);
+		t.setDaemon(true);
+		return t;
+	}
+
+	public static synchronized void stop() {
+		if (server != null) {
+			server.stop(0);
+			server = null;
+		}
+		if (snapshotScheduler != null) {
+			snapshotScheduler.shutdownNow();
+			snapshotScheduler = null;
+		}
+	}
+}
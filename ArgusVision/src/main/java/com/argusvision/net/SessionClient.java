@@ -1,14 +1,34 @@
 package com.argusvision.net;
 
 import com.argusvision.model.Session;
+import com.argusvision.util.IoExecutors;
+
 import java.net.http.*;
 import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class SessionClient {
 
+    /** Base do servidor; pode ser sobrescrita com -Dargusvision.server.url */
+    private static final String BASE_URL =
+        System.getProperty("argusvision.server.url", "http://localhost:8080");
+
     private static final String URL =
-        "http://localhost:8080/api/session/start";
+        BASE_URL + "/api/session/start";
+
+    /**
+     * Limites de conexão e de resposta: um servidor que não responde não pode
+     * travar a inicialização nem a revalidação da sessão
+     */
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    /** Cliente compartilhado (segue o modo de I/O de {@link IoExecutors}) */
+    private static final HttpClient CLIENT = IoExecutors.configure(HttpClient.newBuilder())
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
 
     public static Session start(String student, String exam) {
 
@@ -18,15 +38,15 @@ public class SessionClient {
     	    );
 
     	try {
-            HttpClient client = HttpClient.newHttpClient();
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(URL))
+                    .timeout(REQUEST_TIMEOUT)
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(json))
                     .build();
 
             HttpResponse<String> response =
-                    client.send(request, HttpResponse.BodyHandlers.ofString());
+                    send(request);
 
             int status = response.statusCode();
             String body = response.body();
@@ -58,16 +78,16 @@ public class SessionClient {
 
     public static Session fetchByStudent(String student) {
         try {
-            HttpClient client = HttpClient.newHttpClient();
             HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(
-                    "http://localhost:8080/api/session/active/" + student
+                    BASE_URL + "/api/session/active/" + student
                 ))
+                .timeout(REQUEST_TIMEOUT)
                 .GET()
                 .build();
 
             HttpResponse<String> response =
-                client.send(request, HttpResponse.BodyHandlers.ofString());
+                send(request);
 
             if (response.statusCode() == 404) {
                 throw new RuntimeException("Aluno não possui sessão ativa.");
@@ -85,14 +105,14 @@ public class SessionClient {
 
     public static Session fetch() {
         try {
-            HttpClient client = HttpClient.newHttpClient();
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:8080/api/session/active"))
+                    .uri(URI.create(BASE_URL + "/api/session/active"))
+                    .timeout(REQUEST_TIMEOUT)
                     .GET()
                     .build();
 
             HttpResponse<String> response =
-                    client.send(request, HttpResponse.BodyHandlers.ofString());
+                    send(request);
 
             if (response.statusCode() == 404) {
                 throw new RuntimeException("Nenhuma sessão ativa encontrada.");
@@ -105,4 +125,78 @@ public class SessionClient {
             throw new RuntimeException("Não foi possível obter sessão ativa do servidor", e);
         }
     }
+
+    /**
+     * Resultado de uma busca condicional da sessão ativa.
+     */
+    public static final class ConditionalResult {
+        /** null quando não há sessão ativa (404) ou nada mudou (304) */
+        public final Session session;
+        public final boolean notModified;
+        public final String etag;
+        public final String lastModified;
+
+        ConditionalResult(Session session, boolean notModified, String etag, String lastModified) {
+            this.session = session;
+            this.notModified = notModified;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Busca a sessão ativa com If-None-Match / If-Modified-Since (quando
+     * informados). Se o servidor não suportar requisições condicionais, a
+     * resposta é sempre 200 com a sessão completa.
+     */
+    public static ConditionalResult fetchIfChanged(String etag, String lastModified) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(URI.create(BASE_URL + "/api/session/active"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET();
+            if (etag != null)
+                builder.header("If-None-Match", etag);
+            if (lastModified != null)
+                builder.header("If-Modified-Since", lastModified);
+
+            HttpResponse<String> response = send(builder.build());
+
+            if (response.statusCode() == 304)
+                return new ConditionalResult(null, true, etag, lastModified);
+
+            if (response.statusCode() == 404)
+                return new ConditionalResult(null, false, null, null);
+
+            if (response.statusCode() != 200) {
+                throw new RuntimeException(
+                    "Servidor respondeu com status " + response.statusCode() + " ao consultar sessão ativa");
+            }
+
+            ObjectMapper mapper = new ObjectMapper();
+            return new ConditionalResult(
+                    mapper.readValue(response.body(), Session.class),
+                    false,
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Não foi possível consultar sessão ativa do servidor", e);
+        }
+    }
+
+    /**
+     * Envio síncrono respeitando o limite global de requisições simultâneas.
+     */
+    private static HttpResponse<String> send(HttpRequest request) throws Exception {
+        Semaphore permits = IoExecutors.httpPermits();
+        permits.acquire();
+        try {
+            return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        } finally {
+            permits.release();
+        }
+    }
 }
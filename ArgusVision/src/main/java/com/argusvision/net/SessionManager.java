@@ -0,0 +1,291 @@
+package com.argusvision.net;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Metrics;
+import com.argusvision.model.Session;
+import com.argusvision.util.FileLogger;
+import com.argusvision.util.VisionContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Resolução da sessão ativa com cache local.
+ *
+ * - {@link #resolve()}: usa a sessão gravada em disco se tiver menos de
+ *   {@code ttl} (início sem esperar a rede); senão consulta o servidor com
+ *   uma requisição condicional (304 custa só o cabeçalho)
+ * - {@link #startRefresh()}: revalida em segundo plano a cada
+ *   {@code refresh}, com If-None-Match / If-Modified-Since; se a sessão veio
+ *   do cache, a primeira revalidação é imediata
+ * - quando a sessão muda no servidor, um novo {@link VisionContext} é
+ *   entregue aos listeners (cada monitor troca a sua referência); quando a
+ *   sessão é encerrada (404), os listeners recebem {@link VisionContext#UNKNOWN}
+ *
+ * Configuração (system properties):
+ * - argusvision.session.ttlSec (padrão 300)
+ * - argusvision.session.refreshSec (padrão 60)
+ */
+public class SessionManager implements AutoCloseable {
+
+	private static final String CACHE_FILE_NAME = "session_cache.json";
+
+	private static final Counter CACHE_HITS = Metrics.counter("session_cache_hits_total");
+	private static final Counter REFRESHES = Metrics.counter("session_refreshes_total");
+	private static final Counter NOT_MODIFIED = Metrics.counter("session_not_modified_total");
+	private static final Counter CHANGES = Metrics.counter("session_changes_total");
+	private static final Counter REFRESH_ERRORS = Metrics.counter("session_refresh_errors_total");
+	private static final Counter ENDED = Metrics.counter("session_ended_total");
+
+	/**
+	 * Sessão conhecida + validadores HTTP da última resposta. Imutável.
+	 */
+	private static final class Entry {
+		final Session session;
+		final VisionContext context;
+		final long fetchedAt;
+		final String etag;
+		final String lastModified;
+
+		Entry(Session session, long fetchedAt, String etag, String lastModified) {
+			this.session = session;
+			this.context = VisionContext.of(session);
+			this.fetchedAt = fetchedAt;
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
+
+		Entry touch(long now) {
+			return new Entry(session, now, etag, lastModified);
+		}
+	}
+
+	private final Path cacheFile;
+	private final long ttlMs;
+	private final long refreshMs;
+	private final BiFunction<String, String, SessionClient.ConditionalResult> fetcher;
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final List<Consumer<VisionContext>> listeners = new CopyOnWriteArrayList<>();
+
+	private volatile Entry current;
+	private volatile boolean servedFromCache;
+	private ScheduledExecutorService refresher;
+
+	public SessionManager() {
+		this(new File(FileLogger.getLogDir(), CACHE_FILE_NAME).toPath(),
+				Long.getLong("argusvision.session.ttlSec", 300) * 1000,
+				Long.getLong("argusvision.session.refreshSec", 60) * 1000);
+	}
+
+	public SessionManager(Path cacheFile, long ttlMs, long refreshMs) {
+		this(cacheFile, ttlMs, refreshMs, SessionClient::fetchIfChanged);
+	}
+
+	/**
+	 * @param fetcher busca condicional (etag, lastModified); nos testes substitui
+	 *                o servidor
+	 */
+	SessionManager(Path cacheFile, long ttlMs, long refreshMs,
+			BiFunction<String, String, SessionClient.ConditionalResult> fetcher) {
+		this.cacheFile = cacheFile;
+		this.ttlMs = ttlMs;
+		this.refreshMs = refreshMs;
+		this.fetcher = fetcher;
+	}
+
+	/**
+	 * Sessão para iniciar o monitoramento: do cache, se recente, ou do servidor.
+	 * Uma sessão do cache é confirmada logo em seguida pela primeira
+	 * revalidação de {@link #startRefresh()} (imediata nesse caso); se tiver
+	 * sido encerrada, os listeners recebem {@link VisionContext#UNKNOWN}.
+	 *
+	 * @throws RuntimeException se não houver cache recente nem sessão ativa
+	 */
+	public Session resolve() {
+		Entry cached = readCache();
+		long now = System.currentTimeMillis();
+
+		if (cached != null && now - cached.fetchedAt < ttlMs) {
+			CACHE_HITS.inc();
+			current = cached;
+			servedFromCache = true;
+			FileLogger.logTxt(cached.context, "[SESSAO] Sessão do cache local (revalidação em segundo plano)");
+			return cached.session;
+		}
+
+		SessionClient.ConditionalResult result = cached != null
+				? fetcher.apply(cached.etag, cached.lastModified)
+				: fetcher.apply(null, null);
+
+		servedFromCache = false;
+		if (result.notModified) {
+			NOT_MODIFIED.inc();
+			current = cached.touch(now);
+		} else if (result.session != null) {
+			current = new Entry(result.session, now, result.etag, result.lastModified);
+		} else {
+			// Sessão encerrada: o cache não pode iniciar um monitoramento depois
+			deleteCache();
+			throw new RuntimeException("Nenhuma sessão ativa encontrada.");
+		}
+
+		writeCache(current);
+		return current.session;
+	}
+
+	/**
+	 * Identidade atual (imutável). Válida após {@link #resolve()}.
+	 */
+	public VisionContext current() {
+		Entry e = current;
+		return e != null ? e.context : VisionContext.UNKNOWN;
+	}
+
+	/**
+	 * Registra quem deve receber a nova identidade quando a sessão mudar.
+	 */
+	public void addListener(Consumer<VisionContext> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Inicia a revalidação periódica em segundo plano.
+	 */
+	public synchronized void startRefresh() {
+		if (refresher != null)
+			return;
+
+		refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "Vision-Session-Refresh");
+			t.setDaemon(true);
+			return t;
+		});
+		long initialDelay = servedFromCache ? 0 : refreshMs;
+		refresher.scheduleWithFixedDelay(this::refresh, initialDelay, refreshMs, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Uma revalidação condicional. Erros de rede mantêm a sessão atual; sem
+	 * sessão ativa (404), a identidade passa a ser {@link VisionContext#UNKNOWN}
+	 * até o servidor devolver outra.
+	 */
+	void refresh() {
+		Entry previous = current;
+
+		REFRESHES.inc();
+		try {
+			SessionClient.ConditionalResult result = previous != null
+					? fetcher.apply(previous.etag, previous.lastModified)
+					: fetcher.apply(null, null);
+			long now = System.currentTimeMillis();
+
+			if (result.notModified && previous != null) {
+				NOT_MODIFIED.inc();
+				current = previous.touch(now);
+				servedFromCache = false;
+				writeCache(current);
+				return;
+			}
+
+			if (result.session == null) {
+				if (previous == null)
+					return;
+
+				// Sessão encerrada no servidor: não continua monitorando em nome dela
+				ENDED.inc();
+				current = null;
+				deleteCache();
+				FileLogger.logTxt(previous.context, "[SESSAO] Sessão encerrada no servidor");
+				notifyListeners(VisionContext.UNKNOWN);
+				return;
+			}
+
+			Entry next = new Entry(result.session, now, result.etag, result.lastModified);
+			current = next;
+			servedFromCache = false;
+			writeCache(next);
+
+			if (previous == null || !next.context.equals(previous.context)) {
+				CHANGES.inc();
+				notifyListeners(next.context);
+			}
+		} catch (RuntimeException e) {
+			REFRESH_ERRORS.inc();
+			System.err.println("[ArgusVision] Falha ao revalidar sessão: " + e.getMessage());
+		}
+	}
+
+	private void notifyListeners(VisionContext context) {
+		for (Consumer<VisionContext> listener : listeners)
+			listener.accept(context);
+	}
+
+	private Entry readCache() {
+		if (!Files.isRegularFile(cacheFile))
+			return null;
+
+		try {
+			JsonNode node = mapper.readTree(cacheFile.toFile());
+			Session s = new Session(node.path("student").asText(null), node.path("exam").asText(null),
+					node.path("session").asText(null));
+			if (node.hasNonNull("id"))
+				s.setId(node.get("id").asLong());
+
+			return new Entry(s, node.path("fetchedAt").asLong(0), node.path("etag").asText(null),
+					node.path("lastModified").asText(null));
+		} catch (IOException e) {
+			System.err.println("[ArgusVision] Cache de sessão ilegível, ignorando: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private void writeCache(Entry e) {
+		ObjectNode node = mapper.createObjectNode();
+		node.put("student", e.session.getStudent());
+		node.put("exam", e.session.getExam());
+		node.put("session", e.session.getSession());
+		node.put("id", e.session.getId());
+		node.put("fetchedAt", e.fetchedAt);
+		node.put("etag", e.etag);
+		node.put("lastModified", e.lastModified);
+
+		try {
+			// Temporário + troca: um início concorrente nunca lê o cache pela metade
+			Path tmp = cacheFile.resolveSibling(CACHE_FILE_NAME + ".tmp");
+			mapper.writeValue(tmp.toFile(), node);
+			Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException ex) {
+			System.err.println("[ArgusVision] Não foi possível gravar cache de sessão: " + ex.getMessage());
+		}
+	}
+
+	private void deleteCache() {
+		try {
+			Files.deleteIfExists(cacheFile);
+		} catch (IOException e) {
+			System.err.println("[ArgusVision] Não foi possível remover cache de sessão: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (refresher != null) {
+			refresher.shutdownNow();
+			refresher = null;
+		}
+	}
+}
@@ -0,0 +1,403 @@
+package com.argusvision.recorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfInt;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Histogram;
+import com.argusvision.metrics.Metrics;
+import com.argusvision.util.FileLogger;
+import com.argusvision.util.VisionContext;
+
+/**
+ * Gravador de clipes pré/pós-incidente.
+ *
+ * Mantém os últimos segundos de vídeo como JPEGs em um {@link FrameRingBuffer}
+ * de tamanho fixo. Quando um incidente é sinalizado (ex: SEM_ROSTO), espera o
+ * fim da janela pós-evento e grava em disco, de forma assíncrona:
+ *
+ * <pre>
+ * clips/&lt;sessão&gt;_&lt;data&gt;_&lt;motivo&gt;/clip.mjpeg   (JPEGs concatenados)
+ * clips/&lt;sessão&gt;_&lt;data&gt;_&lt;motivo&gt;/index.json   (timestamp, offset e tamanho de cada frame)
+ * </pre>
+ *
+ * Threads e memória:
+ * - o loop de visão só copia o frame para um Mat de entrega (latest-wins) e
+ *   nunca bloqueia
+ * - a thread do gravador codifica o JPEG e escreve no buffer circular
+ * - a exportação copia o clipe para um segundo buffer direto de mesmo tamanho
+ *   e uma thread de escrita grava o arquivo; se ainda houver um clipe sendo
+ *   gravado, o novo é descartado. O consumo fica limitado a 2x o buffer.
+ *
+ * Gatilhos seguidos (ex: SEM_ROSTO prolongado) estendem o mesmo clipe, mas só
+ * até o buffer cobrir o intervalo: antes que o pré-evento seja sobrescrito, o
+ * clipe é gravado e o próximo gatilho abre um novo.
+ *
+ * Desabilitado por padrão: grava vídeo da webcam do aluno em disco.
+ *
+ * Configuração (system properties):
+ * - argusvision.recorder.enabled (padrão false)
+ * - argusvision.recorder.preSec / postSec (padrão 5 / 5)
+ * - argusvision.recorder.fps (padrão 5)
+ * - argusvision.recorder.bufferMb (padrão 8)
+ * - argusvision.recorder.jpegQuality (padrão 70)
+ */
+public class ClipRecorder implements AutoCloseable {
+
+	private static final Counter FRAMES_RECORDED = Metrics.counter("recorder_frames_total");
+	private static final Counter FRAMES_DROPPED = Metrics.counter("recorder_frames_dropped_total");
+	private static final Counter CLIPS_WRITTEN = Metrics.counter("recorder_clips_written_total");
+	private static final Counter CLIPS_DROPPED = Metrics.counter("recorder_clips_dropped_total");
+	private static final Histogram ENCODE_LATENCY = Metrics.histogram("recorder_encode_latency_us");
+	private static final Counter CLIPS_SPLIT = Metrics.counter("recorder_clips_split_total");
+	private static final Counter CLIPS_TRUNCATED = Metrics.counter("recorder_clips_truncated_total");
+	private static final Histogram CLIP_BYTES = Metrics.histogram("recorder_clip_bytes");
+
+	/** Frames nos buffers de todos os gravadores da JVM */
+	private static final AtomicLong BUFFERED_FRAMES = new AtomicLong();
+
+	static {
+		Metrics.gauge("recorder_buffer_frames", BUFFERED_FRAMES::get);
+	}
+
+	private static final String CLIPS_DIR = "clips";
+
+	private final long preMs;
+	private final long postMs;
+	private final long frameIntervalMs;
+	/** Intervalo de tempo que o buffer comporta (limite da janela de um clipe) */
+	private final long windowMs;
+	private final File clipsDir;
+
+	/** Acessados apenas pela thread do gravador */
+	private final FrameRingBuffer ring;
+	private final MatOfByte jpeg = new MatOfByte();
+	private final MatOfInt jpegParams;
+	private byte[] scratch = new byte[64 * 1024];
+	private Incident openIncident;
+
+	/** Entrega do loop de visão para o gravador (mesmo esquema do BufferedVisionOutput) */
+	private final AtomicReference<TimedFrame> pendingFrame = new AtomicReference<>();
+	private final AtomicReference<Mat> spareFrame = new AtomicReference<>();
+	private volatile long lastOfferedAt;
+
+	private final ConcurrentLinkedQueue<Incident> triggers = new ConcurrentLinkedQueue<>();
+
+	/** Buffer de exportação: reutilizado, só um clipe por vez */
+	private final ByteBuffer exportBuffer;
+	private final AtomicBoolean writerBusy = new AtomicBoolean();
+
+	private final ScheduledExecutorService recorder;
+	private final ExecutorService writer;
+
+	private volatile boolean closed;
+
+	public ClipRecorder(long preMs, long postMs, int fps, int bufferBytes, int jpegQuality, File baseDir) {
+		this.preMs = preMs;
+		this.postMs = postMs;
+		this.frameIntervalMs = 1000L / Math.max(1, fps);
+		this.clipsDir = new File(baseDir, CLIPS_DIR);
+
+		// Folga de 50% sobre o número de frames da janela pré + pós
+		int maxFrames = (int) ((preMs + postMs) * fps / 1000 * 3 / 2) + 1;
+		this.ring = new FrameRingBuffer(bufferBytes, maxFrames);
+		this.windowMs = (maxFrames - 1) * frameIntervalMs;
+		this.exportBuffer = ByteBuffer.allocateDirect(bufferBytes);
+		this.jpegParams = new MatOfInt(Imgcodecs.IMWRITE_JPEG_QUALITY, jpegQuality);
+
+		this.recorder = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "Vision-Clip-Recorder"));
+		this.writer = Executors.newSingleThreadExecutor(r -> daemon(r, "Vision-Clip-Writer"));
+
+		recorder.scheduleWithFixedDelay(this::tick, frameIntervalMs, frameIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Cria o gravador a partir das system properties, ou null se desabilitado.
+	 */
+	public static ClipRecorder fromSystemProperties() {
+		if (!Boolean.parseBoolean(System.getProperty("argusvision.recorder.enabled", "false")))
+			return null;
+
+		long preSec = Long.getLong("argusvision.recorder.preSec", 5);
+		long postSec = Long.getLong("argusvision.recorder.postSec", 5);
+		int fps = Integer.getInteger("argusvision.recorder.fps", 5);
+		int bufferMb = Integer.getInteger("argusvision.recorder.bufferMb", 8);
+		int quality = Integer.getInteger("argusvision.recorder.jpegQuality", 70);
+
+		return new ClipRecorder(preSec * 1000, postSec * 1000, fps, bufferMb * 1024 * 1024, quality,
+				new File(FileLogger.getLogDir()));
+	}
+
+	/**
+	 * Oferece um frame do loop de visão. Respeita o fps do gravador, copia o
+	 * frame (o loop reutiliza o Mat) e retorna imediatamente.
+	 */
+	public void offer(Mat frame, long timestamp) {
+		if (closed || timestamp - lastOfferedAt < frameIntervalMs)
+			return;
+		lastOfferedAt = timestamp;
+
+		Mat copy = spareFrame.getAndSet(null);
+		if (copy == null)
+			copy = new Mat();
+		frame.copyTo(copy);
+
+		TimedFrame replaced = pendingFrame.getAndSet(new TimedFrame(copy, timestamp));
+		if (replaced != null)
+			recycle(replaced.mat);
+	}
+
+	/**
+	 * Sinaliza um incidente; o clipe cobre [timestamp - pre, timestamp + post].
+	 *
+	 * @param context identidade gravada no índice do clipe
+	 */
+	public void trigger(String reason, long timestamp, VisionContext context) {
+		if (!closed)
+			triggers.offer(new Incident(reason, timestamp, context));
+	}
+
+	/**
+	 * Executado na thread do gravador a cada intervalo de frame.
+	 */
+	private void tick() {
+		try {
+			TimedFrame frame = pendingFrame.getAndSet(null);
+			if (frame != null) {
+				record(frame);
+				recycle(frame.mat);
+			}
+
+			Incident incident;
+			while ((incident = triggers.poll()) != null) {
+				if (openIncident == null)
+					openIncident = incident;
+				else
+					openIncident.merge(incident);
+			}
+
+			if (openIncident == null)
+				return;
+
+			long now = System.currentTimeMillis();
+			if (now >= openIncident.timestamp + postMs) {
+				export(openIncident);
+				openIncident = null;
+			} else if (now - (openIncident.firstTimestamp - preMs) >= windowMs) {
+				// Estender mais sobrescreveria o pré-evento: grava agora, o próximo gatilho abre outro clipe
+				CLIPS_SPLIT.inc();
+				export(openIncident);
+				openIncident = null;
+			}
+		} catch (Exception e) {
+			System.err.println("[ArgusVision] Erro no gravador de clipes: " + e.getMessage());
+		}
+	}
+
+	private void record(TimedFrame frame) {
+		long start = System.nanoTime();
+		Imgcodecs.imencode(".jpg", frame.mat, jpeg, jpegParams);
+
+		int length = (int) jpeg.total();
+		if (scratch.length < length)
+			scratch = new byte[length];
+		jpeg.get(0, 0, scratch);
+		ENCODE_LATENCY.recordSince(start);
+
+		int before = ring.size();
+		if (ring.add(frame.timestamp, scratch, length))
+			FRAMES_RECORDED.inc();
+		else
+			FRAMES_DROPPED.inc();
+		BUFFERED_FRAMES.addAndGet(ring.size() - before);
+	}
+
+	/**
+	 * Copia os frames do incidente para o buffer de exportação e agenda a escrita.
+	 */
+	private void export(Incident incident) {
+		if (!writerBusy.compareAndSet(false, true)) {
+			CLIPS_DROPPED.inc();
+			FileLogger.logTxt(incident.context, "[CLIP] Clipe descartado (gravação anterior em andamento): "
+					+ incident.reason);
+			return;
+		}
+
+		long from = incident.firstTimestamp - preMs;
+		long to = incident.timestamp + postMs;
+
+		// Pré-evento já sobrescrito (ex: frames maiores que o previsto para o buffer em bytes)
+		if (ring.size() > 0 && ring.timestampAt(0) > from + frameIntervalMs)
+			CLIPS_TRUNCATED.inc();
+
+		exportBuffer.clear();
+		int n = 0;
+		long[] timestamps = new long[ring.size()];
+		int[] lengths = new int[ring.size()];
+		for (int i = 0; i < ring.size(); i++) {
+			long ts = ring.timestampAt(i);
+			if (ts < from || ts > to)
+				continue;
+
+			timestamps[n] = ts;
+			lengths[n] = ring.lengthAt(i);
+			ring.copyTo(i, exportBuffer);
+			n++;
+		}
+		exportBuffer.flip();
+
+		if (n == 0) {
+			writerBusy.set(false);
+			return;
+		}
+
+		int frameCount = n;
+		writer.execute(() -> {
+			try {
+				writeClip(incident, timestamps, lengths, frameCount);
+			} catch (IOException e) {
+				System.err.println("[ArgusVision] Erro ao gravar clipe: " + e.getMessage());
+			} finally {
+				writerBusy.set(false);
+			}
+		});
+	}
+
+	private void writeClip(Incident incident, long[] timestamps, int[] lengths, int frameCount) throws IOException {
+		VisionContext context = incident.context;
+		String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(incident.firstTimestamp));
+		File dir = new File(clipsDir, sanitize(context.session()) + "_" + stamp + "_" + sanitize(incident.reason));
+		dir.mkdirs();
+
+		File clip = new File(dir, "clip.mjpeg");
+		try (FileChannel channel = FileChannel.open(clip.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (exportBuffer.hasRemaining())
+				channel.write(exportBuffer);
+		}
+
+		try (PrintWriter out = new PrintWriter(new File(dir, "index.json"), "UTF-8")) {
+			out.println("{");
+			out.printf("  \"reason\": \"%s\",%n", incident.reason);
+			out.printf("  \"student\": \"%s\",%n", context.student());
+			out.printf("  \"exam\": \"%s\",%n", context.exam());
+			out.printf("  \"session\": \"%s\",%n", context.session());
+			out.printf("  \"triggeredAt\": %d,%n", incident.firstTimestamp);
+			out.printf("  \"lastTriggerAt\": %d,%n", incident.timestamp);
+			out.printf("  \"preMs\": %d,%n", preMs);
+			out.printf("  \"postMs\": %d,%n", postMs);
+			out.println("  \"file\": \"clip.mjpeg\",");
+			out.println("  \"frames\": [");
+
+			long offset = 0;
+			for (int i = 0; i < frameCount; i++) {
+				out.printf("    {\"timestamp\": %d, \"offset\": %d, \"length\": %d}%s%n",
+						timestamps[i], offset, lengths[i], i < frameCount - 1 ? "," : "");
+				offset += lengths[i];
+			}
+			out.println("  ]");
+			out.println("}");
+		}
+
+		CLIPS_WRITTEN.inc();
+		CLIP_BYTES.record(clip.length());
+		FileLogger.logTxt(context, "[CLIP] " + incident.reason + " → " + dir.getName() + " (" + frameCount + " frames)");
+	}
+
+	private void recycle(Mat frame) {
+		if (!spareFrame.compareAndSet(null, frame))
+			frame.release();
+	}
+
+	private static String sanitize(String s) {
+		return s == null ? "desconhecido" : s.replaceAll("[^A-Za-z0-9_-]", "_");
+	}
+
+	private static Thread daemon(Runnable r, String name) {
+		Thread t = new Thread(r, name);
+		t.setDaemon(true);
+		return t;
+	}
+
+	/**
+	 * Grava o incidente em aberto (com o que houver da janela pós-evento) e
+	 * encerra as threads.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		recorder.shutdown();
+		try {
+			recorder.awaitTermination(1, TimeUnit.SECONDS);
+			if (openIncident != null)
+				export(openIncident);
+
+			writer.shutdown();
+			writer.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		TimedFrame pending = pendingFrame.getAndSet(null);
+		if (pending != null)
+			pending.mat.release();
+		Mat spare = spareFrame.getAndSet(null);
+		if (spare != null)
+			spare.release();
+		jpeg.release();
+		BUFFERED_FRAMES.addAndGet(-ring.size());
+	}
+
+	private static final class TimedFrame {
+		final Mat mat;
+		final long timestamp;
+
+		TimedFrame(Mat mat, long timestamp) {
+			this.mat = mat;
+			this.timestamp = timestamp;
+		}
+	}
+
+	/**
+	 * Incidente em aberto. Gatilhos que chegam durante a janela pós-evento são
+	 * agregados ao mesmo clipe, estendendo seu fim (até o limite do buffer).
+	 */
+	private static final class Incident {
+		String reason;
+		final long firstTimestamp;
+		long timestamp;
+		final VisionContext context;
+
+		Incident(String reason, long timestamp, VisionContext context) {
+			this.reason = reason;
+			this.context = context;
+			this.firstTimestamp = timestamp;
+			this.timestamp = timestamp;
+		}
+
+		void merge(Incident other) {
+			if (!reason.contains(other.reason))
+				reason = reason + "+" + other.reason;
+			timestamp = Math.max(timestamp, other.timestamp);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.argusvision.recorder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Buffer circular de frames JPEG com memória fixa.
+ *
+ * Os bytes ficam em um único ByteBuffer direto (fora do heap) alocado na
+ * criação; os metadados (timestamp, offset, tamanho) ficam em arrays
+ * primitivos de tamanho fixo. Frames novos sobrescrevem os mais antigos:
+ * nenhuma alocação acontece depois do construtor.
+ *
+ * Não é thread-safe: pertence à thread do gravador.
+ */
+class FrameRingBuffer {
+
+	private final ByteBuffer data;
+	private final int capacity;
+
+	private final long[] timestamps;
+	private final int[] offsets;
+	private final int[] lengths;
+
+	/** Índice (nos arrays de metadados) do frame mais antigo */
+	private int first;
+	private int count;
+
+	/** Próxima posição livre em {@link #data} */
+	private int writePos;
+
+	FrameRingBuffer(int capacityBytes, int maxFrames) {
+		this.data = ByteBuffer.allocateDirect(capacityBytes);
+		this.capacity = capacityBytes;
+		this.timestamps = new long[maxFrames];
+		this.offsets = new int[maxFrames];
+		this.lengths = new int[maxFrames];
+	}
+
+	/**
+	 * Adiciona um frame, descartando os mais antigos que ocupem o espaço necessário.
+	 *
+	 * @return false se o frame sozinho é maior que o buffer inteiro
+	 */
+	boolean add(long timestamp, byte[] jpeg, int length) {
+		if (length > capacity)
+			return false;
+
+		int start = writePos;
+		if (start + length > capacity) {
+			// Não cabe até o fim: volta ao início. Os frames do fim são os mais antigos.
+			while (count > 0 && offsets[first] >= writePos)
+				evictOldest();
+			start = 0;
+		}
+
+		while (count > 0 && offsets[first] >= start && offsets[first] < start + length)
+			evictOldest();
+
+		if (count == timestamps.length)
+			evictOldest();
+
+		ByteBuffer target = data.duplicate();
+		target.position(start);
+		target.put(jpeg, 0, length);
+
+		int slot = (first + count) % timestamps.length;
+		timestamps[slot] = timestamp;
+		offsets[slot] = start;
+		lengths[slot] = length;
+		count++;
+
+		writePos = start + length;
+		return true;
+	}
+
+	private void evictOldest() {
+		first = (first + 1) % timestamps.length;
+		count--;
+	}
+
+	int size() {
+		return count;
+	}
+
+	/**
+	 * Bytes ocupados pelos frames presentes.
+	 */
+	long usedBytes() {
+		long total = 0;
+		for (int i = 0; i < count; i++)
+			total += lengths[(first + i) % lengths.length];
+		return total;
+	}
+
+	/** Timestamp do i-ésimo frame, do mais antigo (0) ao mais novo. */
+	long timestampAt(int i) {
+		return timestamps[(first + i) % timestamps.length];
+	}
+
+	int lengthAt(int i) {
+		return lengths[(first + i) % lengths.length];
+	}
+
+	/**
+	 * Copia os bytes do i-ésimo frame para {@code target} (na posição atual).
+	 */
+	void copyTo(int i, ByteBuffer target) {
+		int slot = (first + i) % offsets.length;
+
+		ByteBuffer source = data.duplicate();
+		source.position(offsets[slot]);
+		source.limit(offsets[slot] + lengths[slot]);
+		target.put(source);
+	}
+}
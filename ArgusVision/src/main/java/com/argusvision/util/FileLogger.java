@@ -3,16 +3,44 @@ package com.argusvision.util;
 import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Histogram;
+import com.argusvision.metrics.Metrics;
 
 public class FileLogger {
-	private static final String LOG_DIR = System.getProperty("user.home") + File.separator + "ArgusLogsVision";
+	/** Pode ser sobrescrito com -Dargusvision.logDir (ex: benchmarks e testes de carga) */
+	private static final String LOG_DIR = System.getProperty("argusvision.logDir",
+			System.getProperty("user.home") + File.separator + "ArgusLogsVision");
 	private static final String TXT_FILE_NAME = "argusvision.log";
 	private static final String JSON_FILE_NAME = "argusvision_events.json";
+	private static final String TIMELINE_FILE_NAME = "argusvision_timeline.jsonl";
+
+	/** Formato do campo "timestamp" dos eventos JSON */
+	public static final String JSON_TIMESTAMP_PATTERN = "dd-MM-yyyy HH:mm:ss.SSS";
 
 	private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat("HH:mm:ss");
 
+	private static final Histogram WRITE_LATENCY = Metrics.histogram("filelogger_write_latency_us");
+	private static final Counter LINES_WRITTEN = Metrics.counter("filelogger_lines_total");
+
+	/**
+	 * No modo de I/O virtual as escritas vão para uma fila serial e o chamador
+	 * não espera o disco; no modo platform (padrão) são síncronas como antes.
+	 */
+	private static final ExecutorService WRITER = IoExecutors.isVirtual()
+			? IoExecutors.newSerialExecutor("Vision-Log-Writer")
+			: null;
+
 	static {
-		new File(LOG_DIR).mkdir();
+		new File(LOG_DIR).mkdirs();
 
 		// Inicializa o arquivo JSON como um array vazio se ele não existir
 		File jsonFile = new File(LOG_DIR + "/" + JSON_FILE_NAME);
@@ -26,41 +54,92 @@ public class FileLogger {
 	}
 
 	/**
-     * Registra a mensagem no formato de texto (TXT).
+     * Registra a mensagem no formato de texto (TXT), sem sessão (mensagens do processo).
      */
     public static void logTxt(String message) {
+        logTxt(VisionContext.UNKNOWN, message);
+    }
+
+	/**
+     * Registra a mensagem no formato de texto (TXT).
+     */
+    public static void logTxt(VisionContext context, String message) {
+        String line = linePrefix(context) + message;
+        write(() -> appendTxt(line));
+    }
+
+    private static synchronized void appendTxt(String line) {
+        long start = System.nanoTime();
         try {
             // true para anexar (append)
             FileWriter fw = new FileWriter(LOG_DIR + "/" + TXT_FILE_NAME, true);
             BufferedWriter bw = new BufferedWriter(fw);
             PrintWriter out = new PrintWriter(bw);
 
-            String time = TIME_FORMAT.format(new Date());
-            out.println("[" + time + "] [" + VisionContext.student + "|" + VisionContext.exam + "|" + VisionContext.session + "] " + message);
+            out.println(line);
 
             out.close();
+            LINES_WRITTEN.inc();
 
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            WRITE_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Registra várias mensagens no TXT abrindo o arquivo uma única vez.
+     */
+    public static void logTxt(VisionContext context, List<String> messages) {
+        if (messages.isEmpty())
+            return;
+
+        String prefix = linePrefix(context);
+        write(() -> appendTxt(prefix, messages));
+    }
+
+    private static synchronized void appendTxt(String prefix, List<String> messages) {
+        long start = System.nanoTime();
+        try (PrintWriter out = new PrintWriter(
+                new BufferedWriter(new FileWriter(LOG_DIR + "/" + TXT_FILE_NAME, true)))) {
+
+            for (String message : messages) {
+                out.println(prefix + message);
+            }
+            LINES_WRITTEN.add(messages.size());
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            WRITE_LATENCY.recordSince(start);
         }
     }
 
 	/**
 	 * Registra o evento no formato JSON, anexando-o ao array no arquivo.
 	 * 
+	 * @param context    Identidade do monitor que gerou o evento
 	 * @param type       Tipo do evento (Ex: "Rosto", "Movimento")
 	 * @param detail     Detalhe do evento (Ex: "Olhando Esquerda", "Detectado")
 	 * @param confidence Nível de confiança (pode ser o ID da câmera, no caso: 2)
 	 */
-	public static void logJson(String type, String detail, int confidence) {
+	public static void logJson(VisionContext context, String type, String detail, int confidence) {
+		// Horário capturado na chamada, não na escrita
+		String timestamp = new SimpleDateFormat(JSON_TIMESTAMP_PATTERN).format(new Date());
+
+		write(() -> appendJson(timestamp, context.student(), context.exam(), type, detail, confidence));
+	}
+
+	private static synchronized void appendJson(String timestamp, String student, String exam, String type,
+			String detail, int confidence) {
+		long start = System.nanoTime();
 		try {
 			// true para anexar (append)
 			FileWriter fw = new FileWriter(LOG_DIR + "/" + JSON_FILE_NAME, true);
 			BufferedWriter bw = new BufferedWriter(fw);
 			PrintWriter out = new PrintWriter(bw);
 
-			String timestamp = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss.SSS").format(new Date());
-
 			// Verifica se o arquivo não está vazio para adicionar a vírgula antes de um
 			// novo objeto
 			if (new File(LOG_DIR + "/" + JSON_FILE_NAME).length() > 2) {
@@ -68,34 +147,132 @@ public class FileLogger {
 				out.println(",");
 			}
 
-			// Montagem manual do objeto JSON
-			String jsonObject = String.format("  {" +
-			        "\"timestamp\": \"%s\", " +
-			        "\"student\": \"%s\", " +
-			        "\"exam\": \"%s\", " +
-			        "\"type\": \"%s\", " +
-			        "\"detail\": \"%s\", " +
-			        "\"confidence\": %d" +
-			    "}",
-			    timestamp, 
-			    VisionContext.student, 
-			    VisionContext.exam,
-			    type,
-			    detail,
-			    confidence);
-
-			out.print(jsonObject);
+			out.print(formatJsonEvent(timestamp, student, exam, type, detail, confidence));
 			out.close();
+			LINES_WRITTEN.inc();
 
 		} catch (IOException e) {
 			e.printStackTrace();
+		} finally {
+			WRITE_LATENCY.recordSince(start);
 		}
 	}
 
+	/**
+	 * Monta um objeto do array de eventos JSON (sem vírgula nem quebra de linha).
+	 * Compartilhado com o modo batch, que grava o mesmo formato.
+	 *
+	 * @param timestamp horário já formatado com {@link #JSON_TIMESTAMP_PATTERN}
+	 */
+	public static String formatJsonEvent(String timestamp, String student, String exam, String type, String detail,
+			int confidence) {
+		// Montagem manual do objeto JSON
+		return String.format("  {" +
+		        "\"timestamp\": \"%s\", " +
+		        "\"student\": \"%s\", " +
+		        "\"exam\": \"%s\", " +
+		        "\"type\": \"%s\", " +
+		        "\"detail\": \"%s\", " +
+		        "\"confidence\": %d" +
+		    "}",
+		    timestamp, 
+		    student, 
+		    exam,
+		    type,
+		    detail,
+		    confidence);
+	}
+
+	/**
+	 * Registra um resumo da linha do tempo (um objeto JSON por linha).
+	 */
+	public static void logTimeline(String json) {
+		write(() -> appendTimeline(json));
+	}
+
+	private static synchronized void appendTimeline(String json) {
+		long start = System.nanoTime();
+		try (PrintWriter out = new PrintWriter(
+				new BufferedWriter(new FileWriter(LOG_DIR + "/" + TIMELINE_FILE_NAME, true)))) {
+			out.println(json);
+			LINES_WRITTEN.inc();
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			WRITE_LATENCY.recordSince(start);
+		}
+	}
+
+	/**
+	 * Prefixo "[hora] [aluno|prova|sessão] " das linhas do TXT.
+	 */
+	private static String linePrefix(VisionContext context) {
+		synchronized (TIME_FORMAT) {
+			return "[" + TIME_FORMAT.format(new Date()) + "] [" + context.student() + "|" + context.exam()
+					+ "|" + context.session() + "] ";
+		}
+	}
+
+	/**
+	 * Executa a escrita direto (modo platform) ou a enfileira (modo virtual).
+	 * A fila é limitada pelo semáforo de {@link IoExecutors}: cheia, o chamador
+	 * espera uma vaga, preservando a ordem das linhas.
+	 */
+	private static void write(Runnable append) {
+		if (WRITER == null) {
+			append.run();
+			return;
+		}
+
+		Semaphore permits = IoExecutors.logPermits();
+		permits.acquireUninterruptibly();
+		try {
+			WRITER.execute(() -> {
+				try {
+					append.run();
+				} finally {
+					permits.release();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// Fila já encerrada (shutdown): escreve no próprio chamador
+			permits.release();
+			append.run();
+		}
+	}
+
+	/**
+	 * Aguarda as escritas enfileiradas (modo virtual). No modo platform não faz nada.
+	 */
+	public static void flush() {
+		if (WRITER == null)
+			return;
+
+		try {
+			WRITER.submit(() -> { }).get(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+			System.err.println("[ArgusVision] Logs pendentes não gravados: " + e);
+		}
+	}
+
+	/**
+	 * Diretório onde os logs (e snapshots de métricas) são gravados.
+	 */
+	public static String getLogDir() {
+		return LOG_DIR;
+	}
+
 	/**
 	 * DEVE ser chamado no final do programa para fechar o array JSON.
 	 */
 	public static void closeJsonLog() {
+		flush();
+		appendJsonEnd();
+	}
+
+	private static synchronized void appendJsonEnd() {
 		try (PrintWriter out = new PrintWriter(
 				new BufferedWriter(new FileWriter(LOG_DIR + "/" + JSON_FILE_NAME, true)))) {
 			out.println("\n]"); // Fecha o array JSON
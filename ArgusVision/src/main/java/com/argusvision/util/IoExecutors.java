@@ -0,0 +1,167 @@
+package com.argusvision.util;
+
+import java.lang.reflect.Method;
+import java.net.http.HttpClient;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import com.argusvision.metrics.Metrics;
+
+/**
+ * Modo de execução do I/O bloqueante (HTTP e escrita de logs).
+ *
+ * - platform (padrão): uma thread de SO por fila, como sempre foi
+ * - virtual: as mesmas filas, mas cada uma drenada por uma virtual thread
+ *   (Java 21+). Uma thread bloqueada em HTTP não ocupa uma thread de SO, então
+ *   um host com muitos fluxos não precisa de milhares de threads.
+ *
+ * Em ambos os modos a concorrência é limitada por semáforos globais, e não
+ * pelo número de threads:
+ * - argusvision.io.maxHttp: requisições HTTP simultâneas (padrão 256)
+ * - argusvision.io.maxPendingLogs: escritas de log enfileiradas no modo
+ *   virtual (padrão 10000); acima disso o chamador espera uma vaga
+ *
+ * Selecione com -Dargusvision.io.mode=virtual. Em JVMs sem virtual threads o
+ * modo platform é usado e um aviso é impresso.
+ */
+public final class IoExecutors {
+
+	public static final String MODE_PROPERTY = "argusvision.io.mode";
+
+	private static final boolean VIRTUAL = resolveMode();
+
+	private static final int MAX_HTTP = Integer.getInteger("argusvision.io.maxHttp", 256);
+	private static final Semaphore HTTP_PERMITS = new Semaphore(MAX_HTTP);
+
+	private static final int MAX_PENDING_LOGS = Integer.getInteger("argusvision.io.maxPendingLogs", 10_000);
+	private static final Semaphore LOG_PERMITS = new Semaphore(MAX_PENDING_LOGS);
+
+	/**
+	 * Executor interno de todos os HttpClient no modo virtual. Único na JVM:
+	 * um por cliente vazaria um pool a cada sender (e o teste de carga cria
+	 * centenas). Virtual threads ociosas não custam nada, então nunca é encerrado.
+	 */
+	private static final ExecutorService HTTP_EXECUTOR = VIRTUAL
+			? Executors.newCachedThreadPool(virtualThreadFactory("Vision-Http"))
+			: null;
+
+	static {
+		Metrics.gauge("io_http_in_flight", () -> MAX_HTTP - HTTP_PERMITS.availablePermits());
+		Metrics.gauge("io_logs_pending", () -> MAX_PENDING_LOGS - LOG_PERMITS.availablePermits());
+		Metrics.gauge("io_virtual_mode", () -> VIRTUAL ? 1 : 0);
+	}
+
+	private IoExecutors() {
+	}
+
+	public static boolean isVirtual() {
+		return VIRTUAL;
+	}
+
+	/**
+	 * Fila serial (ordem de submissão preservada) para o modo configurado.
+	 */
+	public static ExecutorService newSerialExecutor(String name) {
+		return newSerialExecutor(name, VIRTUAL);
+	}
+
+	/**
+	 * Fila serial com o modo explícito (benchmarks comparam os dois na mesma JVM).
+	 * Cai para platform se virtual threads não estiverem disponíveis.
+	 */
+	public static ExecutorService newSerialExecutor(String name, boolean virtual) {
+		ThreadFactory factory = virtual ? virtualThreadFactory(name) : null;
+		if (factory != null)
+			return Executors.newSingleThreadExecutor(factory);
+
+		return Executors.newSingleThreadExecutor(r -> new Thread(r, name));
+	}
+
+	/**
+	 * Uma thread por tarefa (virtual ou de SO, reaproveitada se ociosa), sem
+	 * limite: para servidores de teste em que cada requisição bloqueia.
+	 * Cai para platform se virtual threads não estiverem disponíveis.
+	 */
+	public static ExecutorService newPerTaskExecutor(String name, boolean virtual) {
+		ThreadFactory factory = virtual ? virtualThreadFactory(name) : null;
+		if (factory != null)
+			return Executors.newCachedThreadPool(factory);
+
+		return Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, name);
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Executor para uma chamada bloqueante avulsa (ex: busca da sessão): no modo
+	 * virtual, uma virtual thread por tarefa; no modo platform, {@code platform}.
+	 */
+	public static Executor blocking(Executor platform) {
+		if (!VIRTUAL)
+			return platform;
+
+		ThreadFactory factory = virtualThreadFactory("Vision-Io");
+		return command -> factory.newThread(command).start();
+	}
+
+	/**
+	 * Aplica o modo ao executor interno do HttpClient (usado nas chamadas
+	 * assíncronas). Todos os clientes compartilham o mesmo executor.
+	 */
+	public static HttpClient.Builder configure(HttpClient.Builder builder) {
+		if (VIRTUAL)
+			builder.executor(HTTP_EXECUTOR);
+		return builder;
+	}
+
+	/**
+	 * Semáforo das requisições HTTP em voo (compartilhado por todos os senders da JVM).
+	 */
+	public static Semaphore httpPermits() {
+		return HTTP_PERMITS;
+	}
+
+	/**
+	 * Semáforo das escritas de log enfileiradas.
+	 */
+	static Semaphore logPermits() {
+		return LOG_PERMITS;
+	}
+
+	private static boolean resolveMode() {
+		String mode = System.getProperty(MODE_PROPERTY, "platform");
+		if (!"virtual".equalsIgnoreCase(mode))
+			return false;
+
+		if (virtualThreadFactory("Vision-Io") == null) {
+			System.err.println("[ArgusVision] Virtual threads indisponíveis nesta JVM (Java 21+); usando platform");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * {@code Thread.ofVirtual().name(name + "-", 0).factory()} por reflexão,
+	 * para o projeto continuar compilando e rodando em Java 17.
+	 *
+	 * @return null se a JVM não suporta virtual threads
+	 */
+	private static ThreadFactory virtualThreadFactory(String name) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+
+			Method nameMethod = builderType.getMethod("name", String.class, long.class);
+			builder = nameMethod.invoke(builder, name + "-", 0L);
+
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+}
@@ -1,14 +1,67 @@
 package com.argusvision.util;
 
-public class VisionContext {
+import java.util.Objects;
 
-    public static String student = "EstudanteDesconhecido";
-    public static String exam = "ExameDesconhecido";
-    public static String session = "SessaoDesconhecida";
+import com.argusvision.model.Session;
 
-    public static void init(String studentName, String examName, String sessionId) {
-        VisionContext.student = studentName;
-        VisionContext.exam = examName;
-        VisionContext.session = sessionId;
-    }
+/**
+ * Identidade do monitoramento (aluno, prova, sessão) anexada a eventos e logs.
+ *
+ * Imutável: cada monitor tem a sua e, quando a sessão muda no servidor,
+ * recebe uma instância nova (a referência é trocada, nunca os campos). Assim
+ * várias sessões podem rodar na mesma JVM sem estado global compartilhado.
+ */
+public final class VisionContext {
+
+	/** Identidade usada antes de haver sessão (e em mensagens do processo) */
+	public static final VisionContext UNKNOWN =
+			new VisionContext("EstudanteDesconhecido", "ExameDesconhecido", "SessaoDesconhecida");
+
+	private final String student;
+	private final String exam;
+	private final String session;
+
+	public VisionContext(String student, String exam, String session) {
+		this.student = student;
+		this.exam = exam;
+		this.session = session;
+	}
+
+	public static VisionContext of(Session s) {
+		return new VisionContext(s.getStudent(), s.getExam(), s.getSession());
+	}
+
+	public String student() {
+		return student;
+	}
+
+	public String exam() {
+		return exam;
+	}
+
+	public String session() {
+		return session;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof VisionContext))
+			return false;
+
+		VisionContext other = (VisionContext) o;
+		return Objects.equals(student, other.student) && Objects.equals(exam, other.exam)
+				&& Objects.equals(session, other.session);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(student, exam, session);
+	}
+
+	@Override
+	public String toString() {
+		return student + " | " + exam + " | " + session;
+	}
 }
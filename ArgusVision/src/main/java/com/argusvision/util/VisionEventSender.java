@@ -6,12 +6,42 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Histogram;
+import com.argusvision.metrics.Metrics;
+
 public class VisionEventSender {
 
-	private static final String SERVER_URL = "http://localhost:8080/api/event";
+	/** Base do servidor; pode ser sobrescrita com -Dargusvision.server.url */
+	private static final String SERVER_URL =
+			System.getProperty("argusvision.server.url", "http://localhost:8080") + "/api/event";
+
+	private static final Histogram HTTP_LATENCY = Metrics.histogram("http_request_latency_us");
+	private static final Counter HTTP_REQUESTS = Metrics.counter("http_requests_total");
+	private static final Counter HTTP_NON_2XX = Metrics.counter("http_non_2xx_total");
+	private static final Counter HTTP_ERRORS = Metrics.counter("http_errors_total");
+	private static final Histogram FRAME_PAYLOAD_BYTES = Metrics.histogram("frame_payload_bytes");
+	private static final Counter FRAMES_REPLACED = Metrics.counter("frames_replaced_total");
+
+	/** Espera máxima pelos envios pendentes no encerramento */
+	private static final long SHUTDOWN_TIMEOUT_SEC = 5;
+
+	/**
+	 * Tarefas submetidas e ainda não concluídas (profundidade das filas), somadas
+	 * de todos os senders da JVM: no teste de carga há um por instância.
+	 */
+	private static final AtomicInteger PENDING_EVENTS = new AtomicInteger();
+	private static final AtomicInteger PENDING_FRAMES = new AtomicInteger();
+
+	static {
+		Metrics.gauge("sender_event_queue_depth", PENDING_EVENTS::get);
+		Metrics.gauge("sender_frame_queue_depth", PENDING_FRAMES::get);
+	}
 	
 	/** Executor para eventos simples (teclado, foco, rosto, etc) */
     private final ExecutorService eventExecutor;
@@ -24,28 +54,64 @@ public class VisionEventSender {
 
 	private final HttpClient httpClient;
 
-	public VisionEventSender() {
-		this.eventExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "Vision-Event-Sender"));
-        this.frameExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "Vision-Frame-Sender"));
+	/** Identidade anexada aos eventos; trocada inteira quando a sessão muda */
+	private volatile VisionContext context;
+
+	public VisionEventSender(VisionContext context) {
+		this.context = context;
+
+		// Filas seriais: em modo virtual (-Dargusvision.io.mode=virtual) não ocupam threads de SO
+		this.eventExecutor = IoExecutors.newSerialExecutor("Vision-Event-Sender");
+        this.frameExecutor = IoExecutors.newSerialExecutor("Vision-Frame-Sender");
         this.latestFrameBase64 = new AtomicReference<>(null);
 
-        this.httpClient = HttpClient.newBuilder()
+        this.httpClient = IoExecutors.configure(HttpClient.newBuilder())
                 .connectTimeout(Duration.ofSeconds(5))
                 .build();
 	}
 
+	/**
+     * Substitui a identidade dos próximos eventos e frames.
+     */
+    public void setContext(VisionContext context) {
+        this.context = context;
+    }
+
 	/**
      * Envia eventos simples (sem imagem).
      * Uso: foco, estado, rosto, movimento etc.
      */
     public void sendEventAsync(String type, String action) {
+        VisionContext ctx = context; // identidade no momento do evento
+        long timestamp = System.currentTimeMillis();
+
+        PENDING_EVENTS.incrementAndGet();
         eventExecutor.submit(() -> {
-            String json = String.format(
-        		"{\"type\":\"%s\",\"action\":\"%s\",\"timestamp\":%d," + "\"student\":\"%s\",\"exam\":\"%s\",\"session\":\"%s\"}",
-                type, action, System.currentTimeMillis(), VisionContext.student, VisionContext.exam
-            );
+            try {
+                String json = String.format(
+            		"{\"type\":\"%s\",\"action\":\"%s\",\"timestamp\":%d," + "\"student\":\"%s\",\"exam\":\"%s\",\"session\":\"%s\"}",
+                    type, action, timestamp, ctx.student(), ctx.exam(), ctx.session()
+                );
 
-            sendToServer(json);
+                sendToServer(json);
+            } finally {
+                PENDING_EVENTS.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Envia um evento já montado (ex: resumo da linha do tempo), pela mesma
+     * fila dos eventos simples.
+     */
+    public void sendJsonAsync(String json) {
+        PENDING_EVENTS.incrementAndGet();
+        eventExecutor.submit(() -> {
+            try {
+                sendToServer(json);
+            } finally {
+                PENDING_EVENTS.decrementAndGet();
+            }
         });
     }
 
@@ -56,10 +122,13 @@ public class VisionEventSender {
      * - Não envia imediatamente
      * - Substitui qualquer frame antigo ainda não enviado
      */
-    public void updateVisionFrame(String student, String exam, String base64Image) {
-        latestFrameBase64.set(
-            buildFrameJson(student, exam, base64Image)
-        );
+    public void updateVisionFrame(String base64Image) {
+        String json = buildFrameJson(base64Image);
+        FRAME_PAYLOAD_BYTES.record(json.length());
+
+        if (latestFrameBase64.getAndSet(json) != null) {
+            FRAMES_REPLACED.inc();
+        }
     }
 
     /**
@@ -68,10 +137,15 @@ public class VisionEventSender {
      * Deve ser chamado por um scheduler externo (ex: a cada 1 segundo).
      */
     public void flushLatestFrame() {
+        PENDING_FRAMES.incrementAndGet();
         frameExecutor.submit(() -> {
-            String json = latestFrameBase64.getAndSet(null);
-            if (json != null) {
-                sendToServer(json);
+            try {
+                String json = latestFrameBase64.getAndSet(null);
+                if (json != null) {
+                    sendToServer(json);
+                }
+            } finally {
+                PENDING_FRAMES.decrementAndGet();
             }
         });
     }
@@ -79,13 +153,14 @@ public class VisionEventSender {
     /**
      * Monta o JSON do frame de forma controlada.
      */
-    private String buildFrameJson(String student, String exam, String base64Image) {
+    public String buildFrameJson(String base64Image) {
+        VisionContext ctx = context;
         return String.format(
 			"{\"type\":\"vision_frame\",\"student\":\"%s\",\"exam\":\"%s\",\"session\":\"%s\"," +
 				    "\"timestamp\":%d,\"image\":\"%s\"}",
-				    VisionContext.student,
-				    VisionContext.exam,
-				    VisionContext.session,
+				    ctx.student(),
+				    ctx.exam(),
+				    ctx.session(),
 				    System.currentTimeMillis(),
 				    base64Image.replace("\"", "\\\"")
         );
@@ -97,8 +172,21 @@ public class VisionEventSender {
      * Método síncrono por design:
      * - Evita async duplicado
      * - Permite controle real de fila
+     * 
+     * O número de requisições simultâneas na JVM é limitado pelo semáforo de
+     * {@link IoExecutors}, não pelo número de threads.
      */
     private void sendToServer(String json) {
+        Semaphore permits = IoExecutors.httpPermits();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // shutdown em andamento
+            return;
+        }
+
+        long start = System.nanoTime();
+        HTTP_REQUESTS.inc();
         try {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(SERVER_URL))
@@ -110,18 +198,41 @@ public class VisionEventSender {
             HttpResponse<String> response =
                     httpClient.send(request, HttpResponse.BodyHandlers.ofString());
 
-            System.out.println("[ArgusVision] HTTP " + response.statusCode());
+            // Respostas 2xx só contam nas métricas; imprimir cada uma inunda o stdout sob carga
+            if (response.statusCode() / 100 != 2) {
+                HTTP_NON_2XX.inc();
+                System.err.println("[ArgusVision] HTTP " + response.statusCode());
+            }
 
         } catch (Exception e) {
+            HTTP_ERRORS.inc();
             System.err.println("[ArgusVision] Erro ao enviar evento: " + e.getMessage());
+        } finally {
+            HTTP_LATENCY.recordSince(start);
+            permits.release();
         }
     }
 
     /**
      * Finaliza corretamente os executores.
+     *
+     * Os eventos já enfileirados (ex: último resumo da linha do tempo,
+     * VISION_ENCERRADO) ainda são enviados; só o que passar de
+     * {@link #SHUTDOWN_TIMEOUT_SEC} é interrompido.
      */
     public void shutdown() {
-        eventExecutor.shutdownNow();
-        frameExecutor.shutdownNow();
+        eventExecutor.shutdown();
+        frameExecutor.shutdown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SEC);
+        try {
+            eventExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            frameExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            eventExecutor.shutdownNow();
+            frameExecutor.shutdownNow();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.argusvision.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.argusvision.camera.StatusDebouncer;
+
+import junit.framework.TestCase;
+
+/**
+ * A divisão em trechos não pode mudar o resultado: costurar os trechos deve
+ * dar os mesmos eventos que o vídeo inteiro analisado de uma vez.
+ */
+public class StatusRunsTest extends TestCase {
+
+	private static final double FPS = 10;
+	private static final long STABLE = 700;
+	private static final long INTERVAL = 2000;
+
+	/** Status por frame: longos trechos estáveis intercalados com oscilações */
+	private static String[] video(int frames) {
+		String[] statuses = new String[frames];
+		for (int f = 0; f < frames; f++) {
+			int phase = f / 37;
+			if (phase % 3 == 2)
+				statuses[f] = f % 4 == 0 ? "SEM_ROSTO" : "ROSTO_CENTRO"; // oscilação
+			else
+				statuses[f] = phase % 2 == 0 ? "ROSTO_CENTRO" : "SEM_ROSTO";
+		}
+		return statuses;
+	}
+
+	/** Mesma amostragem do {@link ChunkTask}, sem decodificar vídeo */
+	private static StatusRuns chunk(String[] statuses, int start, int end, int stride) {
+		StatusRuns runs = new StatusRuns();
+		for (int f = start; f < end; f += stride)
+			runs.add(statuses[f], f, Math.min(stride, end - f));
+		return runs;
+	}
+
+	private static List<String> events(StatusRuns runs, int stride) {
+		List<String> out = new ArrayList<>();
+		for (StatusRuns.Event e : runs.stableEvents(FPS, stride, new StatusDebouncer(STABLE, INTERVAL)))
+			out.add(e.offsetMs + ":" + e.status);
+		return out;
+	}
+
+	private void assertSplitMatchesWhole(int frames, int stride, int chunkFrames) {
+		String[] statuses = video(frames);
+		StatusRuns whole = chunk(statuses, 0, frames, stride);
+
+		StatusRuns stitched = new StatusRuns();
+		for (int start = 0; start < frames; start += chunkFrames)
+			stitched.append(chunk(statuses, start, Math.min(frames, start + chunkFrames), stride));
+
+		String label = "stride " + stride + ", trechos de " + chunkFrames;
+		List<String> expected = events(whole, stride);
+		assertFalse(label, expected.isEmpty());
+		assertEquals(label, expected, events(stitched, stride));
+		assertEquals(label, whole.runs().size(), stitched.runs().size());
+		assertEquals(label, frames, stitched.frames());
+		assertEquals(label, whole.lastSampleMs(FPS, stride), stitched.lastSampleMs(FPS, stride));
+	}
+
+	public void testChunksMatchWholeVideo() {
+		for (int chunkFrames : new int[] { 1, 7, 20, 37, 100 })
+			assertSplitMatchesWhole(503, 1, chunkFrames);
+	}
+
+	public void testChunksMatchWholeVideoWithStride() {
+		for (int stride : new int[] { 2, 3, 5 })
+			for (int chunkFrames : new int[] { stride, 4 * stride, 30 / stride * stride })
+				assertSplitMatchesWhole(503, stride, chunkFrames);
+	}
+
+	public void testStatusSpanningBoundaryIsOneRun() {
+		StatusRuns runs = new StatusRuns();
+		runs.add("ROSTO_CENTRO", 0, 2);
+		runs.add("ROSTO_CENTRO", 2, 2);
+
+		StatusRuns next = new StatusRuns();
+		next.add("ROSTO_CENTRO", 4, 2);
+		next.add("SEM_ROSTO", 6, 1);
+		runs.append(next);
+
+		assertEquals(2, runs.runs().size());
+		assertEquals(0, runs.runs().get(0).from);
+		assertEquals(6, runs.runs().get(0).to);
+		assertEquals(7, runs.frames());
+		assertEquals(600, runs.lastSampleMs(FPS, 2));
+	}
+}
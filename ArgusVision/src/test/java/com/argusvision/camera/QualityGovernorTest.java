@@ -0,0 +1,90 @@
+package com.argusvision.camera;
+
+import junit.framework.TestCase;
+
+/**
+ * Decisões do {@link QualityGovernor} com CPU e latência controladas.
+ */
+public class QualityGovernorTest extends TestCase {
+
+	private static final long EVAL_MS = 2000;
+
+	private double systemCpu;
+	private double processCpu;
+	private long now = 1;
+
+	private QualityGovernor governor() {
+		QualityGovernor g = new QualityGovernor(() -> systemCpu, () -> processCpu);
+		g.update(now); // abre a primeira janela de avaliação
+		return g;
+	}
+
+	/** Uma janela de avaliação com loops de {@code loopMs} */
+	private QualityGovernor.Level evaluate(QualityGovernor g, double loopMs) {
+		for (int i = 0; i < 10; i++)
+			g.recordLoop((long) (loopMs * 1_000_000));
+		now += EVAL_MS;
+		return g.update(now);
+	}
+
+	/**
+	 * Máquina rápida e ociosa: 30 ms de processamento + 33 ms de pausa é a
+	 * cadência normal, não sobrecarga.
+	 */
+	public void testNormalLoopOnIdleMachineStaysNormal() {
+		systemCpu = 0.10;
+		processCpu = 0.05;
+		QualityGovernor g = governor();
+
+		for (int i = 0; i < 10; i++)
+			assertNull(evaluate(g, 30));
+		assertEquals(QualityGovernor.Level.NORMAL, g.level());
+	}
+
+	public void testSlowLoopDegradesAfterConsecutiveEvaluations() {
+		systemCpu = 0.10;
+		processCpu = 0.05;
+		QualityGovernor g = governor();
+
+		assertNull(evaluate(g, 60));
+		assertEquals(QualityGovernor.Level.REDUZIDO, evaluate(g, 60));
+	}
+
+	public void testHighSystemCpuDegrades() {
+		systemCpu = 0.95;
+		processCpu = 0.05;
+		QualityGovernor g = governor();
+
+		assertNull(evaluate(g, 10));
+		assertEquals(QualityGovernor.Level.REDUZIDO, evaluate(g, 10));
+	}
+
+	public void testRecoversAfterCalmEvaluations() {
+		systemCpu = 0.95;
+		processCpu = 0.05;
+		QualityGovernor g = governor();
+		evaluate(g, 10);
+		evaluate(g, 10);
+
+		systemCpu = 0.20;
+		for (int i = 1; i < QualityGovernor.RECOVER_AFTER; i++)
+			assertNull(evaluate(g, 20));
+		assertEquals(QualityGovernor.Level.NORMAL, evaluate(g, 20));
+	}
+
+	public void testUnavailableCpuIsNeitherLoadNorCalm() {
+		systemCpu = -1;
+		processCpu = -1;
+		QualityGovernor g = governor();
+
+		for (int i = 0; i < 5; i++)
+			assertNull("CPU indisponível não é sobrecarga", evaluate(g, 10));
+
+		evaluate(g, 60);
+		assertEquals(QualityGovernor.Level.REDUZIDO, evaluate(g, 60));
+
+		for (int i = 0; i < 2 * QualityGovernor.RECOVER_AFTER; i++)
+			assertNull("CPU indisponível não é folga", evaluate(g, 5));
+		assertEquals(QualityGovernor.Level.REDUZIDO, g.level());
+	}
+}
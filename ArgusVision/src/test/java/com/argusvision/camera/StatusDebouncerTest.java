@@ -0,0 +1,72 @@
+package com.argusvision.camera;
+
+import junit.framework.TestCase;
+
+/**
+ * Regra de estabilidade e intervalo mínimo do {@link StatusDebouncer}.
+ */
+public class StatusDebouncerTest extends TestCase {
+
+	private static final long STABLE = 700;
+	private static final long INTERVAL = 2000;
+
+	public void testEmitsOnceAfterStableTime() {
+		StatusDebouncer d = new StatusDebouncer(STABLE, INTERVAL);
+
+		assertFalse(d.update("A", 10_000));
+		assertFalse(d.update("A", 10_699));
+		assertTrue(d.update("A", 10_700));
+		assertFalse(d.update("A", 10_800));
+		assertFalse(d.update("A", 20_000));
+	}
+
+	public void testFlickerRestartsStability() {
+		StatusDebouncer d = new StatusDebouncer(STABLE, INTERVAL);
+
+		d.update("A", 10_000);
+		d.update("B", 10_500);
+		assertFalse(d.update("A", 10_600));
+		assertFalse(d.update("A", 11_200));
+		assertTrue(d.update("A", 11_300));
+	}
+
+	public void testMinimumIntervalHoldsBackNextStatus() {
+		StatusDebouncer d = new StatusDebouncer(STABLE, INTERVAL);
+
+		d.update("A", 10_000);
+		assertTrue(d.update("A", 10_700));
+
+		d.update("B", 10_800);
+		assertFalse("estável, mas antes do intervalo mínimo", d.update("B", 11_600));
+		assertTrue(d.update("B", 12_700));
+	}
+
+	public void testStabilityOnlyKeepsShortStatusesAndTheirStart() {
+		StatusDebouncer d = new StatusDebouncer(STABLE, 0);
+
+		d.update("A", 10_000);
+		assertTrue(d.update("A", 10_700));
+		assertEquals(10_000, d.stableSince());
+
+		// B dura só 1 s (menos que o intervalo de 2 s dos eventos), mas é estável
+		d.update("B", 10_800);
+		assertTrue(d.update("B", 11_500));
+		assertEquals(10_800, d.stableSince());
+
+		d.update("A", 11_800);
+		assertTrue(d.update("A", 12_500));
+		assertEquals(11_800, d.stableSince());
+	}
+
+	public void testReturningToLastEmittedStatusIsNotRepeated() {
+		StatusDebouncer d = new StatusDebouncer(STABLE, INTERVAL);
+
+		d.update("A", 10_000);
+		assertTrue(d.update("A", 10_700));
+
+		// B não chega a estabilizar; A volta e continua sendo o último emitido
+		d.update("B", 11_000);
+		d.update("A", 11_200);
+		assertFalse(d.update("A", 15_000));
+	}
+}
@@ -0,0 +1,86 @@
+package com.argusvision.camera;
+
+import junit.framework.TestCase;
+
+/**
+ * Agrupamento em intervalos e resumos periódicos do {@link TimelineAggregator}.
+ */
+public class TimelineAggregatorTest extends TestCase {
+
+	private static String flush(TimelineAggregator t, long now, boolean last) {
+		return t.flush(now, "aluno", "prova", "sessao", last);
+	}
+
+	public void testNothingRecordedFlushesNull() {
+		assertNull(flush(new TimelineAggregator(), 1000, false));
+	}
+
+	public void testRepeatedStatusIsMergedIntoOneRun() {
+		TimelineAggregator t = new TimelineAggregator();
+		t.record("Rosto", "ROSTO_CENTRO", 0);
+		t.record("Rosto", "ROSTO_CENTRO", 500);
+		t.record("Rosto", "SEM_ROSTO", 1000);
+
+		assertEquals(2, t.pendingTransitions());
+
+		String json = flush(t, 3000, false);
+		assertTrue(json, json.contains(
+				"{\"channel\":\"Rosto\",\"status\":\"ROSTO_CENTRO\",\"start\":0,\"end\":1000}"));
+		assertTrue(json, json.contains(
+				"{\"channel\":\"Rosto\",\"status\":\"SEM_ROSTO\",\"start\":1000,\"end\":3000,\"open\":true}"));
+		assertTrue(json, json.contains("\"from\":0,\"to\":3000"));
+		assertEquals(0, t.pendingTransitions());
+	}
+
+	public void testOpenRunContinuesInNextSummary() {
+		TimelineAggregator t = new TimelineAggregator();
+		t.record("Movimento", "MOVIMENTO", 0);
+		flush(t, 2000, false);
+
+		String json = flush(t, 5000, false);
+		assertTrue(json, json.contains(
+				"{\"channel\":\"Movimento\",\"status\":\"MOVIMENTO\",\"start\":2000,\"end\":5000,\"open\":true}"));
+		assertTrue(json, json.contains("\"from\":2000,\"to\":5000"));
+	}
+
+	public void testLastFlushClosesRunsAndResets() {
+		TimelineAggregator t = new TimelineAggregator();
+		t.record("Rosto", "ROSTO_CENTRO", 0);
+
+		String json = flush(t, 1000, true);
+		assertTrue(json, json.contains(
+				"{\"channel\":\"Rosto\",\"status\":\"ROSTO_CENTRO\",\"start\":0,\"end\":1000}"));
+		assertNull(flush(t, 2000, false));
+	}
+
+	public void testRunStartIsWhenStatusAppeared() {
+		TimelineAggregator t = new TimelineAggregator();
+		t.record("Rosto", "ROSTO_CENTRO", 0);
+		t.record("Rosto", "SEM_ROSTO", 1000); // apareceu em 1000, estabilizou em 1700
+
+		String json = flush(t, 3000, false);
+		assertTrue(json, json.contains(
+				"{\"channel\":\"Rosto\",\"status\":\"ROSTO_CENTRO\",\"start\":0,\"end\":1000}"));
+	}
+
+	public void testStatusThatAppearedBeforeFlushStartsAtFlush() {
+		TimelineAggregator t = new TimelineAggregator();
+		t.record("Rosto", "ROSTO_CENTRO", 0);
+		flush(t, 2000, false);
+
+		t.record("Rosto", "SEM_ROSTO", 1500);
+		String json = flush(t, 4000, false);
+		assertTrue(json, json.contains(
+				"{\"channel\":\"Rosto\",\"status\":\"SEM_ROSTO\",\"start\":2000,\"end\":4000,\"open\":true}"));
+		assertFalse(json, json.contains("\"status\":\"ROSTO_CENTRO\""));
+	}
+
+	public void testDurationIsSplitAcrossMinutes() {
+		TimelineAggregator t = new TimelineAggregator();
+		t.record("Rosto", "SEM_ROSTO", 50_000);
+
+		String json = flush(t, 70_000, false);
+		assertTrue(json, json.contains("{\"minute\":0,\"Rosto\":{\"SEM_ROSTO\":10000}}"));
+		assertTrue(json, json.contains("{\"minute\":60000,\"Rosto\":{\"SEM_ROSTO\":10000}}"));
+	}
+}
@@ -0,0 +1,120 @@
+package com.argusvision.kernels;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * As implementações escalar e vetorizada devem dar exatamente o mesmo
+ * resultado, inclusive em tamanhos ímpares (cauda fora dos vetores) e em
+ * alturas/larguras que não são múltiplas de 8 (blocos do average hash).
+ */
+public class GrayKernelsTest extends TestCase {
+
+	private static final int[][] SIZES = { { 1, 1 }, { 7, 5 }, { 10, 10 }, { 13, 17 }, { 33, 1 }, { 1, 33 },
+			{ 97, 61 }, { 641, 479 } };
+
+	private static final int[] THRESHOLDS = { -5, -1, 0, 1, 25, 127, 128, 200, 254, 255, 300 };
+
+	private final GrayKernels scalar = GrayKernels.scalar();
+	private final GrayKernels vector = GrayKernels.vector();
+	private final Random random = new Random(42);
+
+	private byte[] randomPixels(int length) {
+		byte[] b = new byte[length];
+		random.nextBytes(b);
+		return b;
+	}
+
+	/**
+	 * Com o módulo presente (surefire o adiciona) a vetorizada tem de carregar
+	 * em qualquer largura de vetor, sem cair em silêncio para a escalar.
+	 */
+	public void testVectorIsSelectedWhenModuleIsPresent() {
+		assertEquals("vector", vector.name());
+		assertEquals("vector", GrayKernels.best().name());
+	}
+
+	public void testNarrowBytesAreLegalAndCoverWholeIntVectors() {
+		assertTrue(VectorGrayKernels.NARROW_BYTES.vectorBitSize() >= 64);
+		assertTrue(VectorGrayKernels.PARTS >= 1);
+		assertEquals(VectorGrayKernels.NARROW_BYTES.length(),
+				VectorGrayKernels.PARTS * VectorGrayKernels.INTS.length());
+	}
+
+	public void testAbsDiffMatches() {
+		for (int[] size : SIZES) {
+			int length = size[0] * size[1];
+			byte[] a = randomPixels(length);
+			byte[] b = randomPixels(length);
+
+			byte[] expected = new byte[length];
+			byte[] actual = new byte[length];
+			scalar.absDiff(a, b, expected, length);
+			vector.absDiff(a, b, actual, length);
+
+			assertTrue(size[0] + "x" + size[1], Arrays.equals(expected, actual));
+		}
+	}
+
+	public void testCountDiffAboveMatchesForAllThresholds() {
+		for (int[] size : SIZES) {
+			int length = size[0] * size[1];
+			byte[] a = randomPixels(length);
+			byte[] b = randomPixels(length);
+
+			for (int t : THRESHOLDS)
+				assertEquals(size[0] + "x" + size[1] + " limite " + t, scalar.countDiffAbove(a, b, length, t),
+						vector.countDiffAbove(a, b, length, t));
+		}
+	}
+
+	public void testNegativeThresholdCountsEveryPixel() {
+		byte[] a = new byte[100];
+		assertEquals(100, scalar.countDiffAbove(a, a, 100, -1));
+		assertEquals(100, vector.countDiffAbove(a, a, 100, -1));
+	}
+
+	public void testAverageHashMatches() {
+		for (int[] size : SIZES) {
+			byte[] gray = randomPixels(size[0] * size[1]);
+			assertEquals(size[0] + "x" + size[1], scalar.averageHash(gray, size[0], size[1]),
+					vector.averageHash(gray, size[0], size[1]));
+		}
+	}
+
+	/**
+	 * Altura 10: a linha 7 pertence ao bloco 6 (blockStart(6, 10) = 7), não ao 5.
+	 */
+	public void testAverageHashUsesSameRowBlocksAsColumns() {
+		int width = 8;
+		int height = 10;
+		byte[] gray = new byte[width * height];
+		Arrays.fill(gray, 7 * width, 8 * width, (byte) 255);
+
+		long expected = 0xFFL << (6 * GrayKernels.HASH_SIZE);
+		assertEquals(expected, scalar.averageHash(gray, width, height));
+		assertEquals(expected, vector.averageHash(gray, width, height));
+	}
+
+	public void testHistogramAndMeanVarianceMatch() {
+		for (int[] size : SIZES) {
+			int length = size[0] * size[1];
+			byte[] gray = randomPixels(length);
+
+			int[] expectedHist = new int[256];
+			int[] actualHist = new int[256];
+			scalar.histogram(gray, length, expectedHist);
+			vector.histogram(gray, length, actualHist);
+			assertTrue(Arrays.equals(expectedHist, actualHist));
+
+			double[] expected = new double[2];
+			double[] actual = new double[2];
+			scalar.meanVariance(gray, length, expected);
+			vector.meanVariance(gray, length, actual);
+			assertEquals(expected[0], actual[0], 1e-9);
+			assertEquals(expected[1], actual[1], 1e-6);
+		}
+	}
+}
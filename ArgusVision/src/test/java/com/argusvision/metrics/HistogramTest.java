@@ -0,0 +1,62 @@
+package com.argusvision.metrics;
+
+import junit.framework.TestCase;
+
+/**
+ * Buckets log-lineares e percentis do {@link Histogram}.
+ */
+public class HistogramTest extends TestCase {
+
+	public void testSmallValuesHaveExactBuckets() {
+		for (int v = 0; v < 16; v++) {
+			assertEquals(v, Histogram.indexOf(v));
+			assertEquals(v, Histogram.upperBoundOf(v));
+		}
+	}
+
+	public void testBucketContainsValueWithBoundedRelativeError() {
+		long[] samples = { 16, 17, 31, 32, 33, 100, 1_000, 65_535, 65_536, 1_234_567, 1L << 40, Long.MAX_VALUE };
+		for (long v : samples) {
+			int index = Histogram.indexOf(v);
+			long upper = Histogram.upperBoundOf(index);
+
+			assertTrue("limite abaixo do valor " + v, upper >= v);
+			assertTrue("erro relativo alto para " + v, (upper - v) <= v / 16);
+		}
+	}
+
+	public void testIndexIsMonotonic() {
+		int previous = -1;
+		for (long v = 0; v < 100_000; v++) {
+			int index = Histogram.indexOf(v);
+			assertTrue(index >= previous);
+			previous = index;
+		}
+		assertTrue(Histogram.indexOf(Long.MAX_VALUE) >= previous);
+	}
+
+	public void testPercentiles() {
+		Histogram h = new Histogram();
+		assertEquals(0, h.percentile(0.5));
+
+		for (int v = 1; v <= 1000; v++)
+			h.record(v);
+
+		assertEquals(1000, h.count());
+		assertEquals(500_500, h.sum());
+		assertEquals(1000, h.max());
+		assertEquals(1000, h.percentile(1.0));
+
+		long p50 = h.percentile(0.5);
+		assertTrue("p50 = " + p50, p50 >= 500 && p50 <= 500 + 500 / 16);
+	}
+
+	public void testNegativeValuesCountAsZero() {
+		Histogram h = new Histogram();
+		h.record(-5);
+
+		assertEquals(1, h.count());
+		assertEquals(0, h.sum());
+		assertEquals(0, h.percentile(0.99));
+	}
+}
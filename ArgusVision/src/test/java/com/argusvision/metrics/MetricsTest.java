@@ -0,0 +1,25 @@
+package com.argusvision.metrics;
+
+import junit.framework.TestCase;
+
+/**
+ * Formato texto do Prometheus gerado por {@link Metrics#toPrometheus()}.
+ */
+public class MetricsTest extends TestCase {
+
+	public void testHistogramMaxIsSeparateGaugeFamily() {
+		Histogram h = Metrics.histogram("metrics_test_latency_us");
+		h.record(10);
+		h.record(250);
+
+		String text = Metrics.toPrometheus();
+		String family = text.substring(text.indexOf("# TYPE argusvision_metrics_test_latency_us summary"));
+
+		String summary = family.substring(0, family.indexOf("# TYPE argusvision_metrics_test_latency_us_max"));
+		assertFalse(summary, summary.contains("_max"));
+		assertTrue(summary, summary.contains("argusvision_metrics_test_latency_us_count 2\n"));
+
+		assertTrue(text, text.contains("# TYPE argusvision_metrics_test_latency_us_max gauge\n"
+				+ "argusvision_metrics_test_latency_us_max 250\n"));
+	}
+}
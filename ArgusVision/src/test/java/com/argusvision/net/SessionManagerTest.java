@@ -0,0 +1,190 @@
+package com.argusvision.net;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import com.argusvision.model.Session;
+import com.argusvision.util.VisionContext;
+
+import junit.framework.TestCase;
+
+/**
+ * Cache com TTL, revalidação condicional (ETag / 304) e fim de sessão (404)
+ * no {@link SessionManager}, com um servidor simulado.
+ */
+public class SessionManagerTest extends TestCase {
+
+	private static final long TTL_MS = 60_000;
+
+	private Path dir;
+	private Path cacheFile;
+
+	/** Respostas do servidor simulado, em ordem; null simula falha de rede */
+	private final Deque<SessionClient.ConditionalResult> responses = new ArrayDeque<>();
+
+	/** Validadores recebidos em cada busca: [etag, lastModified] */
+	private final List<String[]> requests = new ArrayList<>();
+
+	@Override
+	protected void setUp() throws IOException {
+		dir = Files.createTempDirectory("session-test");
+		cacheFile = dir.resolve("session_cache.json");
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		Files.deleteIfExists(cacheFile);
+		Files.deleteIfExists(dir);
+	}
+
+	private SessionManager manager(long ttlMs) {
+		return new SessionManager(cacheFile, ttlMs, 60_000, (etag, lastModified) -> {
+			requests.add(new String[] { etag, lastModified });
+			SessionClient.ConditionalResult r = responses.poll();
+			if (r == null)
+				throw new RuntimeException("servidor inacessível");
+			return r;
+		});
+	}
+
+	private static SessionClient.ConditionalResult ok(String session, String etag) {
+		return new SessionClient.ConditionalResult(new Session("aluno", "prova", session), false, etag, null);
+	}
+
+	private static SessionClient.ConditionalResult notModified(String etag) {
+		return new SessionClient.ConditionalResult(null, true, etag, null);
+	}
+
+	private static SessionClient.ConditionalResult notFound() {
+		return new SessionClient.ConditionalResult(null, false, null, null);
+	}
+
+	public void testFirstResolveFetchesAndWritesCache() {
+		responses.add(ok("s1", "\"v1\""));
+
+		assertEquals("s1", manager(TTL_MS).resolve().getSession());
+		assertNull(requests.get(0)[0]);
+		assertTrue(Files.isRegularFile(cacheFile));
+	}
+
+	public void testRecentCacheStartsWithoutNetworkAndIsRevalidatedWithEtag() {
+		responses.add(ok("s1", "\"v1\""));
+		manager(TTL_MS).resolve();
+
+		SessionManager m = manager(TTL_MS);
+		assertEquals("s1", m.resolve().getSession());
+		assertEquals("início a quente não consulta o servidor", 1, requests.size());
+
+		responses.add(notModified("\"v1\""));
+		m.refresh();
+		assertEquals("\"v1\"", requests.get(1)[0]);
+		assertEquals("s1", m.current().session());
+	}
+
+	public void testExpiredCacheIsRevalidatedWithEtag() {
+		responses.add(ok("s1", "\"v1\""));
+		manager(TTL_MS).resolve();
+
+		responses.add(notModified("\"v1\""));
+		assertEquals("s1", manager(0).resolve().getSession());
+		assertEquals("\"v1\"", requests.get(1)[0]);
+	}
+
+	public void testExpiredCacheIsNotUsedWhenServerIsUnreachable() {
+		responses.add(ok("s1", "\"v1\""));
+		manager(TTL_MS).resolve();
+
+		try {
+			manager(0).resolve();
+			fail("cache expirado não deveria iniciar o monitoramento");
+		} catch (RuntimeException expected) {
+		}
+	}
+
+	public void testEndedSessionIsNotResumedFromExpiredCache() {
+		responses.add(ok("s1", "\"v1\""));
+		manager(TTL_MS).resolve();
+
+		responses.add(notFound());
+		try {
+			manager(0).resolve();
+			fail("sessão encerrada não deveria ser retomada do cache");
+		} catch (RuntimeException expected) {
+		}
+		assertFalse(Files.exists(cacheFile));
+	}
+
+	public void testCachedSessionThatEndedSwitchesToUnknownOnFirstRefresh() {
+		responses.add(ok("s1", "\"v1\""));
+		manager(TTL_MS).resolve();
+
+		SessionManager m = manager(TTL_MS);
+		List<VisionContext> received = new ArrayList<>();
+		m.addListener(received::add);
+		m.resolve();
+
+		responses.add(notFound());
+		m.refresh();
+		assertEquals(VisionContext.UNKNOWN, m.current());
+		assertEquals(VisionContext.UNKNOWN, received.get(0));
+		assertFalse(Files.exists(cacheFile));
+	}
+
+	public void testRefreshNotifiesChangedSession() {
+		SessionManager m = manager(TTL_MS);
+		List<VisionContext> received = new ArrayList<>();
+		m.addListener(received::add);
+
+		responses.add(ok("s1", "\"v1\""));
+		m.resolve();
+
+		responses.add(notModified("\"v1\""));
+		m.refresh();
+		assertTrue(received.isEmpty());
+
+		responses.add(ok("s2", "\"v2\""));
+		m.refresh();
+		assertEquals(1, received.size());
+		assertEquals("s2", received.get(0).session());
+		assertEquals("s2", m.current().session());
+	}
+
+	public void testRefreshSwitchesToUnknownWhenSessionEnds() {
+		SessionManager m = manager(TTL_MS);
+		List<VisionContext> received = new ArrayList<>();
+		m.addListener(received::add);
+
+		responses.add(ok("s1", "\"v1\""));
+		m.resolve();
+
+		responses.add(notFound());
+		m.refresh();
+		assertEquals(VisionContext.UNKNOWN, m.current());
+		assertEquals(VisionContext.UNKNOWN, received.get(0));
+		assertFalse(Files.exists(cacheFile));
+
+		// Uma nova sessão no servidor volta a ser monitorada
+		responses.add(ok("s2", "\"v2\""));
+		m.refresh();
+		assertEquals(2, received.size());
+		assertEquals("s2", m.current().session());
+	}
+
+	public void testRefreshNetworkErrorKeepsSession() {
+		SessionManager m = manager(TTL_MS);
+		List<VisionContext> received = new ArrayList<>();
+		m.addListener(received::add);
+
+		responses.add(ok("s1", "\"v1\""));
+		m.resolve();
+
+		m.refresh();
+		assertEquals("s1", m.current().session());
+		assertTrue(received.isEmpty());
+	}
+}
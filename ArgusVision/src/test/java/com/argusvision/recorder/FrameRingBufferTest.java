@@ -0,0 +1,84 @@
+package com.argusvision.recorder;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Volta ao início e descarte dos frames mais antigos no {@link FrameRingBuffer}.
+ */
+public class FrameRingBufferTest extends TestCase {
+
+	private static byte[] frame(int value, int length) {
+		byte[] b = new byte[length];
+		Arrays.fill(b, (byte) value);
+		return b;
+	}
+
+	private static byte[] bytesAt(FrameRingBuffer ring, int i) {
+		ByteBuffer target = ByteBuffer.allocate(ring.lengthAt(i));
+		ring.copyTo(i, target);
+		return target.array();
+	}
+
+	public void testKeepsFramesInOrder() {
+		FrameRingBuffer ring = new FrameRingBuffer(100, 10);
+		for (int i = 0; i < 3; i++)
+			assertTrue(ring.add(i, frame(i, 10), 10));
+
+		assertEquals(3, ring.size());
+		assertEquals(30, ring.usedBytes());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(i, ring.timestampAt(i));
+			assertEquals(10, ring.lengthAt(i));
+			assertEquals((byte) i, bytesAt(ring, i)[9]);
+		}
+	}
+
+	public void testEvictsOldestWhenFrameSlotsAreFull() {
+		FrameRingBuffer ring = new FrameRingBuffer(1000, 3);
+		for (int i = 0; i < 5; i++)
+			ring.add(i, frame(i, 10), 10);
+
+		assertEquals(3, ring.size());
+		assertEquals(2, ring.timestampAt(0));
+		assertEquals(4, ring.timestampAt(2));
+	}
+
+	public void testWrapsAroundAndEvictsOverwrittenFrames() {
+		FrameRingBuffer ring = new FrameRingBuffer(100, 10);
+		for (int i = 0; i < 3; i++)
+			ring.add(i, frame(i, 30), 30); // 90 bytes usados
+
+		// Não cabe nos 10 bytes finais: volta ao início e sobrescreve o frame 0
+		assertTrue(ring.add(3, frame(3, 30), 30));
+
+		assertEquals(3, ring.size());
+		assertEquals(1, ring.timestampAt(0));
+		assertEquals(3, ring.timestampAt(2));
+		assertEquals((byte) 1, bytesAt(ring, 0)[0]);
+		assertEquals((byte) 3, bytesAt(ring, 2)[29]);
+	}
+
+	public void testLargeFrameAfterWrapEvictsEverythingItCovers() {
+		FrameRingBuffer ring = new FrameRingBuffer(100, 10);
+		for (int i = 0; i < 4; i++)
+			ring.add(i, frame(i, 25), 25);
+
+		assertTrue(ring.add(4, frame(4, 60), 60));
+
+		assertEquals(2, ring.size());
+		assertEquals(3, ring.timestampAt(0));
+		assertEquals(4, ring.timestampAt(1));
+		assertEquals(85, ring.usedBytes());
+	}
+
+	public void testRejectsFrameLargerThanBuffer() {
+		FrameRingBuffer ring = new FrameRingBuffer(100, 10);
+		ring.add(0, frame(0, 10), 10);
+
+		assertFalse(ring.add(1, frame(1, 101), 101));
+		assertEquals(1, ring.size());
+	}
+}
@@ -0,0 +1,97 @@
+package com.argusvision.bench;
+
+import java.util.Random;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Frames de entrada dos benchmarks.
+ *
+ * Por padrão gera imagens sintéticas determinísticas (gradiente + ruído com
+ * semente fixa + blocos), para que execuções em máquinas diferentes usem
+ * exatamente a mesma entrada. Com -Dargusvision.bench.image=arquivo.jpg usa
+ * uma imagem real, redimensionada para a resolução pedida.
+ */
+public final class BenchFrames {
+
+	static final String IMAGE_PROPERTY = "argusvision.bench.image";
+
+	private static volatile boolean loaded;
+
+	private BenchFrames() {
+	}
+
+	/**
+	 * Carrega a biblioteca nativa do OpenCV empacotada no jar (uma vez por JVM).
+	 */
+	public static synchronized void loadOpenCv() {
+		if (!loaded) {
+			nu.pattern.OpenCV.loadLocally();
+			loaded = true;
+		}
+	}
+
+	/**
+	 * @param resolution no formato LARGURAxALTURA (ex: 640x480)
+	 */
+	public static Mat bgr(String resolution) {
+		loadOpenCv();
+
+		String[] parts = resolution.toLowerCase().split("x");
+		int width = Integer.parseInt(parts[0]);
+		int height = Integer.parseInt(parts[1]);
+
+		String image = System.getProperty(IMAGE_PROPERTY);
+		if (image != null && !image.isEmpty()) {
+			Mat source = Imgcodecs.imread(image);
+			if (source.empty())
+				throw new IllegalArgumentException("Imagem não encontrada: " + image);
+
+			Mat resized = new Mat();
+			Imgproc.resize(source, resized, new Size(width, height));
+			source.release();
+			return resized;
+		}
+
+		return synthetic(width, height);
+	}
+
+	public static Mat gray(Mat bgr) {
+		Mat gray = new Mat();
+		Imgproc.cvtColor(bgr, gray, Imgproc.COLOR_BGR2GRAY);
+		return gray;
+	}
+
+	private static Mat synthetic(int width, int height) {
+		Random random = new Random(42);
+		byte[] pixels = new byte[width * height * 3];
+
+		int i = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int base = (x * 255 / width + y * 255 / height) / 2;
+				for (int c = 0; c < 3; c++) {
+					pixels[i++] = (byte) Math.min(255, base + random.nextInt(32));
+				}
+			}
+		}
+
+		Mat mat = new Mat(height, width, CvType.CV_8UC3);
+		mat.put(0, 0, pixels);
+
+		// Blocos de alto contraste para o detector ter bordas a avaliar
+		for (int b = 0; b < 6; b++) {
+			int w = width / 8;
+			int h = height / 6;
+			Rect r = new Rect(random.nextInt(width - w), random.nextInt(height - h), w, h);
+			Imgproc.rectangle(mat, r, new Scalar(random.nextInt(256), random.nextInt(256), random.nextInt(256)), -1);
+		}
+		return mat;
+	}
+}
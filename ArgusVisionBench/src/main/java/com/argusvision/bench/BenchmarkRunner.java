@@ -0,0 +1,48 @@
+package com.argusvision.bench;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Ponto de entrada do benchmarks.jar.
+ *
+ * Repassa os argumentos ao JMH e, se nenhum formato de resultado for
+ * informado, grava o resultado em JSON em
+ * results/jmh-&lt;versão&gt;-&lt;data&gt;.json, para comparar execuções entre releases.
+ * A versão é a do ArgusVision medido, gravada no manifesto pelo build
+ * (Implementation-Version); -Dargusvision.version sobrescreve.
+ *
+ * Uso: java -jar target/benchmarks.jar [regex] [opções do JMH]
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+
+		if (!jmhArgs.contains("-rf") && !jmhArgs.contains("-rff")) {
+			String version = System.getProperty("argusvision.version", manifestVersion());
+			String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+
+			File dir = new File("results");
+			dir.mkdirs();
+			File out = new File(dir, "jmh-" + version + "-" + stamp + ".json");
+
+			jmhArgs.addAll(Arrays.asList("-rf", "json", "-rff", out.getPath()));
+			System.out.println("[ArgusVisionBench] Resultados em " + out.getPath());
+		}
+
+		org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+	}
+
+	/**
+	 * Implementation-Version do benchmarks.jar, ou "dev" fora do jar (ex: IDE).
+	 */
+	private static String manifestVersion() {
+		String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+		return version != null ? version : "dev";
+	}
+}
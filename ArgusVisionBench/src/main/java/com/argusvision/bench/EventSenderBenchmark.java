@@ -0,0 +1,58 @@
+package com.argusvision.bench;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.argusvision.util.VisionContext;
+import com.argusvision.util.VisionEventSender;
+
+/**
+ * Montagem do JSON de frame. O tamanho do payload acompanha o tamanho típico
+ * de um JPEG 640x480 (~30-60 KB) e de resoluções maiores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSenderBenchmark {
+
+	@Param({ "16384", "65536", "262144" })
+	public int jpegBytes;
+
+	private VisionEventSender sender;
+	private String base64;
+
+	@Setup
+	public void setup() {
+		byte[] jpeg = new byte[jpegBytes];
+		new Random(42).nextBytes(jpeg);
+		base64 = Base64.getEncoder().encodeToString(jpeg);
+		sender = new VisionEventSender(new VisionContext("AlunoBench", "ProvaBench", "SessaoBench"));
+	}
+
+	@Benchmark
+	public String buildFrameJson() {
+		return sender.buildFrameJson(base64);
+	}
+
+	@TearDown
+	public void tearDown() {
+		sender.shutdown();
+	}
+}
@@ -0,0 +1,66 @@
+package com.argusvision.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Mat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.argusvision.camera.FaceClassifier;
+
+/**
+ * Custo de detecção + classificação de posição do rosto (o que o
+ * VisionMonitor.detectFace executa a cada frame, sem a lógica de estabilidade).
+ *
+ * Os frames sintéticos de {@link BenchFrames} não contêm rosto, então por
+ * padrão só o caminho SEM_ROSTO é medido (a varredura completa do cascade, sem
+ * a classificação de posição). Para medir com rosto, passe uma foto com um
+ * rosto frontal em -Dargusvision.bench.image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FaceDetectionBenchmark {
+
+	@Param({ "320x240", "640x480", "1280x720" })
+	public String resolution;
+
+	private FaceClassifier classifier;
+	private Mat frame;
+	private Mat gray;
+
+	@Setup
+	public void setup() {
+		frame = BenchFrames.bgr(resolution);
+		gray = BenchFrames.gray(frame);
+		classifier = new FaceClassifier();
+
+		if (!classifier.classify(gray).hasFace())
+			System.out.printf("%n[FaceDetectionBenchmark] %s: nenhum rosto na entrada; medindo só o caminho %s%n",
+					resolution, FaceClassifier.SEM_ROSTO);
+	}
+
+	@Benchmark
+	public FaceClassifier.Result classify() {
+		return classifier.classify(gray);
+	}
+
+	@TearDown
+	public void tearDown() {
+		frame.release();
+		gray.release();
+	}
+}
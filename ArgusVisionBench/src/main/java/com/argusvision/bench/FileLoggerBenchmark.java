@@ -0,0 +1,41 @@
+package com.argusvision.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.argusvision.util.FileLogger;
+import com.argusvision.util.VisionContext;
+
+/**
+ * Custo de uma escrita de log (abre, anexa e fecha o arquivo a cada chamada).
+ * Os arquivos vão para target/bench-logs, fora do diretório real do usuário.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dargusvision.logDir=target/bench-logs")
+public class FileLoggerBenchmark {
+
+	private static final VisionContext CONTEXT = new VisionContext("AlunoBench", "ProvaBench", "SessaoBench");
+
+	@Benchmark
+	public void logTxt() {
+		FileLogger.logTxt(CONTEXT, "[Rosto] ROSTO_CENTRO");
+	}
+
+	@Benchmark
+	public void logJson() {
+		FileLogger.logJson(CONTEXT, "Rosto", "ROSTO_CENTRO", 2);
+	}
+}
@@ -0,0 +1,57 @@
+package com.argusvision.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Mat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.argusvision.camera.CameraViewer;
+import com.argusvision.camera.FrameEncoder;
+
+/**
+ * Conversões de frame: JPEG + Base64 (envio ao servidor) e Mat → BufferedImage (GUI).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameEncoderBenchmark {
+
+	@Param({ "320x240", "640x480", "1280x720" })
+	public String resolution;
+
+	private Mat frame;
+
+	@Setup
+	public void setup() {
+		frame = BenchFrames.bgr(resolution);
+	}
+
+	@Benchmark
+	public String encodeToBase64() {
+		return FrameEncoder.encodeToBase64(frame);
+	}
+
+	@Benchmark
+	public Object matToBufferedImage() {
+		return CameraViewer.matToBufferedImage(frame);
+	}
+
+	@TearDown
+	public void tearDown() {
+		frame.release();
+	}
+}
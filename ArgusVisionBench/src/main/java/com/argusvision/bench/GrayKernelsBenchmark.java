@@ -0,0 +1,194 @@
+package com.argusvision.bench;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfDouble;
+import org.opencv.core.MatOfFloat;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.argusvision.kernels.GrayFrame;
+import com.argusvision.kernels.GrayKernels;
+
+/**
+ * Estatísticas por frame: kernels em {@code byte[]} (escalar e Vector API)
+ * contra as chamadas equivalentes do OpenCV sobre Mat.
+ *
+ * - opencv: Core/Imgproc (inclui o custo do JNI e dos Mats de saída)
+ * - scalar / vector: {@link GrayKernels} sobre quadros já copiados com
+ *   {@link GrayFrame}; o custo dessa cópia é medido à parte em {@link #loadFrame}
+ *
+ * O segundo quadro é o primeiro com um bloco alterado (simula movimento).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class GrayKernelsBenchmark {
+
+	private static final int DIFF_THRESHOLD = 25;
+	private static final Size HASH_SIZE = new Size(GrayKernels.HASH_SIZE, GrayKernels.HASH_SIZE);
+
+	@Param({ "320x240", "640x480", "1280x720" })
+	public String resolution;
+
+	@Param({ "opencv", "scalar", "vector" })
+	public String impl;
+
+	private Mat grayA;
+	private Mat grayB;
+
+	private GrayKernels kernels;
+	private GrayFrame frameA;
+	private GrayFrame frameB;
+	private byte[] diff;
+	private int[] histogram;
+	private double[] meanVariance;
+
+	/** Saídas reutilizadas do caminho OpenCV */
+	private Mat diffMat;
+	private Mat maskMat;
+	private Mat smallMat;
+	private Mat histMat;
+	private MatOfDouble mean;
+	private MatOfDouble stdDev;
+	private byte[] smallPixels;
+	private List<Mat> histImages;
+	private MatOfInt histChannels;
+	private MatOfInt histSize;
+	private MatOfFloat histRanges;
+	private Mat noMask;
+
+	@Setup
+	public void setup() {
+		Mat frame = BenchFrames.bgr(resolution);
+		grayA = BenchFrames.gray(frame);
+		frame.release();
+
+		grayB = grayA.clone();
+		Imgproc.rectangle(grayB, new Rect(grayB.cols() / 4, grayB.rows() / 4, grayB.cols() / 4, grayB.rows() / 4),
+				new Scalar(255), -1);
+
+		if (!"opencv".equals(impl))
+			kernels = "vector".equals(impl) ? GrayKernels.vector() : GrayKernels.scalar();
+
+		frameA = new GrayFrame().load(grayA);
+		frameB = new GrayFrame().load(grayB);
+		diff = new byte[frameA.length()];
+		histogram = new int[256];
+		meanVariance = new double[2];
+
+		diffMat = new Mat();
+		maskMat = new Mat();
+		smallMat = new Mat();
+		histMat = new Mat();
+		mean = new MatOfDouble();
+		stdDev = new MatOfDouble();
+		smallPixels = new byte[GrayKernels.HASH_SIZE * GrayKernels.HASH_SIZE];
+		histImages = Collections.singletonList(grayA);
+		histChannels = new MatOfInt(0);
+		histSize = new MatOfInt(256);
+		histRanges = new MatOfFloat(0f, 256f);
+		noMask = new Mat();
+	}
+
+	/** Cópia Mat → byte[] (uma por frame no uso real) */
+	@Benchmark
+	public GrayFrame loadFrame() {
+		return frameA.load(grayA);
+	}
+
+	@Benchmark
+	public Object absDiff() {
+		if (kernels == null) {
+			Core.absdiff(grayA, grayB, diffMat);
+			return diffMat;
+		}
+		kernels.absDiff(frameA.data(), frameB.data(), diff, frameA.length());
+		return diff;
+	}
+
+	@Benchmark
+	public int countDiffAbove() {
+		if (kernels == null) {
+			Core.absdiff(grayA, grayB, diffMat);
+			Imgproc.threshold(diffMat, maskMat, DIFF_THRESHOLD, 255, Imgproc.THRESH_BINARY);
+			return Core.countNonZero(maskMat);
+		}
+		return kernels.countDiffAbove(frameA.data(), frameB.data(), frameA.length(), DIFF_THRESHOLD);
+	}
+
+	@Benchmark
+	public long averageHash() {
+		if (kernels == null) {
+			Imgproc.resize(grayA, smallMat, HASH_SIZE, 0, 0, Imgproc.INTER_AREA);
+			double avg = Core.mean(smallMat).val[0];
+			smallMat.get(0, 0, smallPixels);
+
+			long hash = 0;
+			for (int i = 0; i < smallPixels.length; i++) {
+				if ((smallPixels[i] & 0xFF) > avg)
+					hash |= 1L << i;
+			}
+			return hash;
+		}
+		return kernels.averageHash(frameA.data(), frameA.width(), frameA.height());
+	}
+
+	@Benchmark
+	public Object histogram() {
+		if (kernels == null) {
+			Imgproc.calcHist(histImages, histChannels, noMask, histMat, histSize, histRanges);
+			return histMat;
+		}
+		kernels.histogram(frameA.data(), frameA.length(), histogram);
+		return histogram;
+	}
+
+	@Benchmark
+	public Object meanVariance() {
+		if (kernels == null) {
+			Core.meanStdDev(grayA, mean, stdDev);
+			return stdDev;
+		}
+		kernels.meanVariance(frameA.data(), frameA.length(), meanVariance);
+		return meanVariance;
+	}
+
+	@TearDown
+	public void tearDown() {
+		grayA.release();
+		grayB.release();
+		diffMat.release();
+		maskMat.release();
+		smallMat.release();
+		histMat.release();
+		mean.release();
+		stdDev.release();
+		histChannels.release();
+		histSize.release();
+		histRanges.release();
+		noMask.release();
+	}
+}
@@ -0,0 +1,140 @@
+package com.argusvision.bench;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.argusvision.bench.load.MockProctoringServer;
+import com.argusvision.util.IoExecutors;
+
+/**
+ * Modelo de execução do I/O: N fluxos, cada um com sua fila serial (como o
+ * VisionEventSender), enviando um POST bloqueante ao stub local por rodada.
+ *
+ * - platform: uma thread de SO por fluxo (modelo de executores atual)
+ * - virtual: a mesma fila drenada por uma virtual thread (precisa de Java 21;
+ *   em JVMs anteriores o resultado é igual ao platform)
+ *
+ * A concorrência é limitada pelo semáforo de {@link IoExecutors}. O stub roda
+ * na mesma JVM, sempre em virtual threads (uma por requisição) quando a JVM
+ * tem suporte, nos dois modos: assim não vira gargalo nem soma ao cliente
+ * uma thread de SO por fluxo. Ao final de cada trial são impressos o pico de
+ * threads de SO da JVM e as threads vivas do cliente e do stub, em separado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dargusvision.io.maxHttp=4096")
+public class IoModeBenchmark {
+
+	@Param({ "platform", "virtual" })
+	public String mode;
+
+	@Param({ "100", "1000" })
+	public int streams;
+
+	@Param({ "20" })
+	public int latencyMs;
+
+	private MockProctoringServer server;
+	private HttpClient client;
+	private HttpRequest request;
+	private ExecutorService[] queues;
+	private ThreadMXBean threads;
+
+	@Setup
+	public void setup() throws IOException {
+		server = new MockProctoringServer(0, IoExecutors.newPerTaskExecutor(MockProctoringServer.THREAD_NAME, true),
+				latencyMs, 0, 0);
+		server.start();
+
+		client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		request = HttpRequest.newBuilder()
+				.uri(URI.create(server.baseUrl() + "/api/event"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"type\":\"vision\",\"action\":\"ROSTO_CENTRO\",\"timestamp\":" + System.currentTimeMillis()
+								+ "}"))
+				.build();
+
+		boolean virtual = "virtual".equals(mode);
+		queues = new ExecutorService[streams];
+		for (int i = 0; i < streams; i++)
+			queues[i] = IoExecutors.newSerialExecutor("Bench-Sender-" + i, virtual);
+
+		threads = ManagementFactory.getThreadMXBean();
+		threads.resetPeakThreadCount();
+	}
+
+	/**
+	 * Uma rodada: cada fluxo envia um evento; mede o tempo até todos concluírem.
+	 */
+	@Benchmark
+	public void uploadRound() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(streams);
+		Semaphore permits = IoExecutors.httpPermits();
+
+		for (ExecutorService queue : queues) {
+			queue.execute(() -> {
+				try {
+					permits.acquire();
+					try {
+						client.send(request, HttpResponse.BodyHandlers.discarding());
+					} finally {
+						permits.release();
+					}
+				} catch (Exception e) {
+					// erros contam só como tempo; o stub não injeta falhas aqui
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+
+		done.await();
+	}
+
+	@TearDown
+	public void tearDown() {
+		// Só threads de SO: virtual threads não aparecem em getAllStackTraces
+		int serverThreads = 0;
+		int clientThreads = 0;
+		for (Thread t : Thread.getAllStackTraces().keySet()) {
+			if (t.getName().startsWith(MockProctoringServer.THREAD_NAME))
+				serverThreads++;
+			else
+				clientThreads++;
+		}
+		System.out.printf("%n[IoModeBenchmark] %s, %d fluxos: pico de %d threads de SO na JVM; "
+				+ "vivas: %d do cliente, %d do stub%n", mode, streams, threads.getPeakThreadCount(), clientThreads,
+				serverThreads);
+
+		for (ExecutorService queue : queues)
+			queue.shutdownNow();
+		server.stop();
+	}
+}
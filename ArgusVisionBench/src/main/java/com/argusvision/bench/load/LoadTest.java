@@ -0,0 +1,191 @@
+package com.argusvision.bench.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.argusvision.bench.BenchFrames;
+import com.argusvision.camera.FrameSource;
+import com.argusvision.camera.VisionMonitor;
+import com.argusvision.metrics.Histogram;
+import com.argusvision.metrics.Metrics;
+import com.argusvision.model.Session;
+import com.argusvision.net.SessionClient;
+import com.argusvision.util.VisionContext;
+
+/**
+ * Teste de carga fim a fim: N agentes (VisionMonitor + VisionEventSender)
+ * contra um stub local do servidor, na mesma JVM.
+ *
+ * Responde "quantos alunos monitorados um backend e um uplink aguentam":
+ * reporta percentis de latência fim a fim de eventos e frames, vazão de
+ * frames e CPU/heap do cliente por instância. CPU e heap são medidos no
+ * processo inteiro e divididos pelo número de instâncias.
+ *
+ * Cada agente tem sua própria identidade (sessão do stub + sufixo do índice).
+ * Com --video os frames seguem o fps do vídeo; --fps vale só se o contêiner
+ * não o informar.
+ *
+ * Uso:
+ * java -cp target/benchmarks.jar com.argusvision.bench.load.LoadTest \
+ *     --instances=50 --duration=60 --fps=15 --resolution=640x480 \
+ *     --latency-ms=20 --jitter-ms=30 --error-rate=0.01 [--video=prova.mp4]
+ */
+public class LoadTest {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opts = parseArgs(args);
+
+		int instances = Integer.parseInt(opts.getOrDefault("instances", "10"));
+		int durationSec = Integer.parseInt(opts.getOrDefault("duration", "60"));
+		int fps = Integer.parseInt(opts.getOrDefault("fps", "15"));
+		String resolution = opts.getOrDefault("resolution", "640x480");
+		String video = opts.get("video");
+		int port = Integer.parseInt(opts.getOrDefault("port", "0"));
+		int serverThreads = Integer.parseInt(opts.getOrDefault("server-threads", "64"));
+		int latencyMs = Integer.parseInt(opts.getOrDefault("latency-ms", "0"));
+		int jitterMs = Integer.parseInt(opts.getOrDefault("jitter-ms", "0"));
+		double errorRate = Double.parseDouble(opts.getOrDefault("error-rate", "0"));
+
+		BenchFrames.loadOpenCv();
+
+		MockProctoringServer server = new MockProctoringServer(port, serverThreads, latencyMs, jitterMs, errorRate);
+		server.start();
+
+		// Precisa ser definido antes de VisionEventSender/SessionClient serem carregados
+		System.setProperty("argusvision.server.url", server.baseUrl());
+		// Clipes de incidentes não fazem parte da medição (e somariam 2 buffers por instância)
+		if (System.getProperty("argusvision.recorder.enabled") == null)
+			System.setProperty("argusvision.recorder.enabled", "false");
+		// Com N instâncias na mesma máquina o governor de QoS reduziria a carga medida
+		if (System.getProperty("argusvision.qos.enabled") == null)
+			System.setProperty("argusvision.qos.enabled", "false");
+		if (System.getProperty("argusvision.logDir") == null)
+			System.setProperty("argusvision.logDir", Files.createTempDirectory("argus-load-").toString());
+
+		System.out.printf("[LoadTest] %d instâncias, %ds, %d fps, %s, stub em %s%n",
+				instances, durationSec, fps, video != null ? video : resolution, server.baseUrl());
+
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		com.sun.management.OperatingSystemMXBean os =
+				(com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+		System.gc();
+		long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+		List<VisionMonitor> monitors = new ArrayList<>();
+		for (int i = 0; i < instances; i++) {
+			Session s = SessionClient.fetch();
+			FrameSource source = video != null
+					? new LoopingVideoFrameSource(video, fps)
+					: new SyntheticFrameSource(resolution, fps);
+
+			VisionContext context = new VisionContext(s.getStudent() + "-" + i, s.getExam(), s.getSession() + "-" + i);
+			monitors.add(new VisionMonitor(context, new NullVisionOutput(), source));
+		}
+
+		long cpuStart = os.getProcessCpuTime();
+		long wallStart = System.nanoTime();
+		long capturedStart = Metrics.counter("vision_frames_captured_total").get();
+
+		for (VisionMonitor m : monitors)
+			m.start();
+
+		TimeUnit.SECONDS.sleep(durationSec);
+
+		long heapLoaded = memory.getHeapMemoryUsage().getUsed();
+		for (VisionMonitor m : monitors)
+			m.stop();
+
+		long wallNanos = System.nanoTime() - wallStart;
+		long cpuNanos = os.getProcessCpuTime() - cpuStart;
+		long captured = Metrics.counter("vision_frames_captured_total").get() - capturedStart;
+
+		// Dá tempo para as últimas requisições em voo chegarem ao stub
+		TimeUnit.SECONDS.sleep(2);
+		server.stop();
+
+		double seconds = wallNanos / 1e9;
+		String report = buildReport(instances, seconds, captured, cpuNanos, heapLoaded - heapBefore, server);
+
+		System.out.println(report);
+		writeReport(report);
+		System.exit(0);
+	}
+
+	private static String buildReport(int instances, double seconds, long captured, long cpuNanos,
+			long heapDelta, MockProctoringServer server) {
+		Histogram http = Metrics.histogram("http_request_latency_us");
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n");
+		sb.append(field("instances", instances));
+		sb.append(field("durationSec", seconds));
+		sb.append(field("framesCapturedPerSec", captured / seconds));
+		sb.append(field("framesCapturedPerSecPerInstance", captured / seconds / instances));
+		sb.append(field("framesReceivedPerSec", server.framesReceived.get() / seconds));
+		sb.append(field("eventsReceived", server.eventsReceived.get()));
+		sb.append(field("uplinkBytesPerSec", server.frameBytesReceived.get() / seconds));
+		sb.append(field("errorsInjected", server.errorsInjected.get()));
+		sb.append(field("clientHttpErrors", Metrics.counter("http_errors_total").get()));
+		sb.append(field("clientCpuCores", cpuNanos / (seconds * 1e9)));
+		sb.append(field("clientCpuCoresPerInstance", cpuNanos / (seconds * 1e9) / instances));
+		sb.append(field("clientHeapBytesPerInstance", heapDelta / instances));
+		sb.append(histogram("frameEndToEndUs", server.frameLatency)).append(",\n");
+		sb.append(histogram("eventEndToEndUs", server.eventLatency)).append(",\n");
+		sb.append(histogram("clientHttpLatencyUs", http)).append('\n');
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private static String field(String name, double value) {
+		return String.format(Locale.ROOT, "  \"%s\": %.3f,%n", name, value);
+	}
+
+	private static String field(String name, long value) {
+		return String.format(Locale.ROOT, "  \"%s\": %d,%n", name, value);
+	}
+
+	private static String histogram(String name, Histogram h) {
+		return String.format(Locale.ROOT,
+				"  \"%s\": {\"count\": %d, \"p50\": %d, \"p90\": %d, \"p99\": %d, \"p999\": %d, \"max\": %d}",
+				name, h.count(), h.percentile(0.5), h.percentile(0.9), h.percentile(0.99), h.percentile(0.999),
+				h.max());
+	}
+
+	private static void writeReport(String report) throws IOException {
+		File dir = new File("results");
+		dir.mkdirs();
+		Path out = new File(dir, "load-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json")
+				.toPath();
+		Files.write(out, report.getBytes(StandardCharsets.UTF_8));
+		System.out.println("[LoadTest] Relatório em " + out);
+	}
+
+	private static Map<String, String> parseArgs(String[] args) {
+		Map<String, String> opts = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--"))
+				throw new IllegalArgumentException("Argumento inválido: " + arg);
+
+			int eq = arg.indexOf('=');
+			if (eq < 0)
+				opts.put(arg.substring(2), "true");
+			else
+				opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		return opts;
+	}
+}
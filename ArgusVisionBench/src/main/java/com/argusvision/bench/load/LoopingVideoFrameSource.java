@@ -0,0 +1,67 @@
+package com.argusvision.bench.load;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.opencv.core.Mat;
+import org.opencv.videoio.VideoCapture;
+import org.opencv.videoio.Videoio;
+
+import com.argusvision.camera.FrameSource;
+
+/**
+ * Frames de um vídeo gravado, reiniciando do começo ao chegar no fim.
+ *
+ * Entregues no fps do próprio vídeo (CAP_PROP_FPS), como uma webcam: sem o
+ * ritmo, o loop de visão receberia frames tão rápido quanto o decodificador
+ * e o teste mediria outra carga que a do {@link SyntheticFrameSource}.
+ */
+public class LoopingVideoFrameSource implements FrameSource {
+
+	private final String file;
+	private final int fallbackFps;
+	private VideoCapture capture;
+
+	private long frameIntervalNanos;
+	private long nextFrameAt;
+
+	/**
+	 * @param fallbackFps ritmo usado se o contêiner não informar o fps
+	 */
+	public LoopingVideoFrameSource(String file, int fallbackFps) {
+		this.file = file;
+		this.fallbackFps = fallbackFps;
+	}
+
+	@Override
+	public boolean open() {
+		capture = new VideoCapture(file);
+		if (!capture.isOpened())
+			return false;
+
+		double fps = capture.get(Videoio.CAP_PROP_FPS);
+		frameIntervalNanos = (long) (1_000_000_000L / (fps > 0 ? fps : Math.max(1, fallbackFps)));
+		if (nextFrameAt == 0)
+			nextFrameAt = System.nanoTime();
+		return true;
+	}
+
+	@Override
+	public boolean read(Mat frame) {
+		long wait = nextFrameAt - System.nanoTime();
+		if (wait > 0)
+			LockSupport.parkNanos(wait);
+		nextFrameAt = Math.max(nextFrameAt + frameIntervalNanos, System.nanoTime());
+
+		if (capture.read(frame))
+			return true;
+
+		capture.release();
+		return open() && capture.read(frame);
+	}
+
+	@Override
+	public void release() {
+		if (capture != null)
+			capture.release();
+	}
+}
@@ -0,0 +1,164 @@
+package com.argusvision.bench.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.argusvision.metrics.Counter;
+import com.argusvision.metrics.Histogram;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stub local do ArgusServer com os endpoints usados pelo agente de visão:
+ *
+ * - GET  /api/session/active: devolve uma sessão nova a cada chamada
+ * - POST /api/event: aceita eventos e frames, medindo a latência fim a fim
+ *   (recebimento - campo "timestamp" do JSON)
+ *
+ * Latência e erros HTTP 500 são injetados conforme a configuração.
+ */
+public class MockProctoringServer {
+
+	private static final String TIMESTAMP_FIELD = "\"timestamp\":";
+
+	/** Nome (prefixo) das threads do stub, para separá-las das do cliente */
+	public static final String THREAD_NAME = "Mock-Server";
+
+	private final int latencyMs;
+	private final int jitterMs;
+	private final double errorRate;
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	private final AtomicInteger sessionCounter = new AtomicInteger();
+
+	final Histogram frameLatency = new Histogram();
+	final Histogram eventLatency = new Histogram();
+	final Counter framesReceived = new Counter();
+	final Counter eventsReceived = new Counter();
+	final Counter frameBytesReceived = new Counter();
+	final Counter errorsInjected = new Counter();
+
+	public MockProctoringServer(int port, int threads, int latencyMs, int jitterMs, double errorRate)
+			throws IOException {
+		this(port, Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, THREAD_NAME);
+			t.setDaemon(true);
+			return t;
+		}), latencyMs, jitterMs, errorRate);
+	}
+
+	/**
+	 * @param executor atende as requisições (a latência injetada o bloqueia);
+	 *                 suas threads devem se chamar {@link #THREAD_NAME}
+	 */
+	public MockProctoringServer(int port, ExecutorService executor, int latencyMs, int jitterMs, double errorRate)
+			throws IOException {
+		this.latencyMs = latencyMs;
+		this.jitterMs = jitterMs;
+		this.errorRate = errorRate;
+
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+		this.executor = executor;
+
+		server.createContext("/api/session/active", this::handleSession);
+		server.createContext("/api/event", this::handleEvent);
+		server.setExecutor(executor);
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	public String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handleSession(HttpExchange exchange) throws IOException {
+		int n = sessionCounter.incrementAndGet();
+		String json = String.format(
+				"{\"id\":%d,\"student\":\"Aluno-%d\",\"exam\":\"ProvaCarga\",\"session\":\"sessao-%d\"}", n, n, n);
+
+		injectLatency();
+		respond(exchange, 200, json);
+	}
+
+	private void handleEvent(HttpExchange exchange) throws IOException {
+		byte[] body;
+		try (InputStream in = exchange.getRequestBody()) {
+			body = in.readAllBytes();
+		}
+		long receivedAt = System.currentTimeMillis();
+
+		// Só o início do JSON é necessário para tipo e timestamp (a imagem vem no fim)
+		String head = new String(body, 0, Math.min(body.length, 512), StandardCharsets.UTF_8);
+		boolean frame = head.contains("\"type\":\"vision_frame\"");
+		long sentAt = parseTimestamp(head);
+
+		if (frame) {
+			framesReceived.inc();
+			frameBytesReceived.add(body.length);
+		} else {
+			eventsReceived.inc();
+		}
+		if (sentAt > 0)
+			(frame ? frameLatency : eventLatency).record((receivedAt - sentAt) * 1_000);
+
+		injectLatency();
+
+		if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+			errorsInjected.inc();
+			respond(exchange, 500, "{\"error\":\"injetado\"}");
+		} else {
+			respond(exchange, 200, "{}");
+		}
+	}
+
+	private void injectLatency() {
+		int delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextInt(jitterMs + 1) : 0);
+		if (delay <= 0)
+			return;
+		try {
+			TimeUnit.MILLISECONDS.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static long parseTimestamp(String json) {
+		int i = json.indexOf(TIMESTAMP_FIELD);
+		if (i < 0)
+			return -1;
+
+		i += TIMESTAMP_FIELD.length();
+		long value = 0;
+		while (i < json.length() && Character.isDigit(json.charAt(i))) {
+			value = value * 10 + (json.charAt(i++) - '0');
+		}
+		return value;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.argusvision.bench.load;
+
+import java.awt.Color;
+
+import org.opencv.core.Mat;
+
+import com.argusvision.camera.VisionOutput;
+
+/**
+ * Saída descartada: o teste de carga mede o agente, não a GUI.
+ */
+public class NullVisionOutput implements VisionOutput {
+
+	@Override
+	public void updateFrame(Mat frame) {
+	}
+
+	@Override
+	public void updateFaceStatus(String status, Color color) {
+	}
+
+	@Override
+	public void updateMotionStatus(String status, Color color) {
+	}
+
+	@Override
+	public void setStatus(String status) {
+	}
+
+	@Override
+	public void addLog(String message) {
+	}
+}
@@ -0,0 +1,72 @@
+package com.argusvision.bench.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+
+import com.argusvision.bench.BenchFrames;
+import com.argusvision.camera.FrameSource;
+
+/**
+ * Webcam simulada: percorre em ciclo um conjunto de frames pré-gerados (um
+ * bloco claro se deslocando sobre o fundo sintético), entregues na taxa
+ * configurada.
+ */
+public class SyntheticFrameSource implements FrameSource {
+
+	private static final int FRAME_COUNT = 30;
+
+	private final String resolution;
+	private final long frameIntervalNanos;
+
+	private final List<Mat> frames = new ArrayList<>();
+	private int next;
+	private long nextFrameAt;
+
+	public SyntheticFrameSource(String resolution, int fps) {
+		this.resolution = resolution;
+		this.frameIntervalNanos = 1_000_000_000L / Math.max(1, fps);
+	}
+
+	@Override
+	public boolean open() {
+		Mat base = BenchFrames.bgr(resolution);
+		int w = base.width() / 5;
+		int h = base.height() / 4;
+
+		for (int i = 0; i < FRAME_COUNT; i++) {
+			Mat frame = base.clone();
+			int x = (base.width() - w) * i / FRAME_COUNT;
+			Imgproc.rectangle(frame, new Rect(x, base.height() / 3, w, h), new Scalar(230, 230, 230), -1);
+			frames.add(frame);
+		}
+		base.release();
+
+		nextFrameAt = System.nanoTime();
+		return true;
+	}
+
+	@Override
+	public boolean read(Mat frame) {
+		long wait = nextFrameAt - System.nanoTime();
+		if (wait > 0)
+			LockSupport.parkNanos(wait);
+		nextFrameAt = Math.max(nextFrameAt + frameIntervalNanos, System.nanoTime());
+
+		frames.get(next).copyTo(frame);
+		next = (next + 1) % frames.size();
+		return true;
+	}
+
+	@Override
+	public void release() {
+		for (Mat frame : frames)
+			frame.release();
+		frames.clear();
+	}
+}